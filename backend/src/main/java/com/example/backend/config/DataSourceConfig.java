@@ -1,34 +1,143 @@
 package com.example.backend.config;
 
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import com.example.backend.model.DbSecret;
-import com.example.backend.service.SecretManagerService;
+import com.example.backend.service.ReadYourWritesTracker;
+import com.example.backend.service.SecretsProvider;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import com.zaxxer.hikari.util.Credentials;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
+/**
+ * Hikari pool for the application database. Exports the hikaricp.connections.*
+ * meters (acquire wait time, active, idle, pending, timeouts) tagged with the
+ * pool name.
+ *
+ * With app.datasource.replica-urls set, read-only transactions go to replica
+ * pools. The LazyConnectionDataSourceProxy defers fetching the physical
+ * connection until the transaction has marked it read-only, which is what
+ * picks primary or replica.
+ */
 @Configuration
 public class DataSourceConfig {
 
+    static final String POOL_NAME = "todo-pool";
+    static final String REPLICA_POOL_PREFIX = "todo-replica-";
+
+    private final int maximumPoolSize;
+    private final int minimumIdle;
+    private final Duration connectionTimeout;
+    private final Duration idleTimeout;
+    private final Duration maxLifetime;
+    private final Duration keepaliveTime;
+    private final Duration leakDetectionThreshold;
+    private final int prepareThreshold;
+    private final boolean reWriteBatchedInserts;
+    private final List<String> replicaUrls;
+
+    public DataSourceConfig(@Value("${app.datasource.maximum-pool-size:0}") int maximumPoolSize,
+                            @Value("${app.datasource.minimum-idle:-1}") int minimumIdle,
+                            @Value("${app.datasource.connection-timeout:5s}") Duration connectionTimeout,
+                            @Value("${app.datasource.idle-timeout:10m}") Duration idleTimeout,
+                            @Value("${app.datasource.max-lifetime:30m}") Duration maxLifetime,
+                            @Value("${app.datasource.keepalive-time:2m}") Duration keepaliveTime,
+                            @Value("${app.datasource.leak-detection-threshold:0s}") Duration leakDetectionThreshold,
+                            @Value("${app.datasource.prepare-threshold:5}") int prepareThreshold,
+                            @Value("${app.datasource.rewrite-batched-inserts:true}") boolean reWriteBatchedInserts,
+                            @Value("${app.datasource.replica-urls:}") List<String> replicaUrls) {
+        // Postgres-Faustregel: Kerne * 2 + 1, mehr Verbindungen bringen nur Kontextwechsel
+        this.maximumPoolSize = maximumPoolSize > 0 ? maximumPoolSize : Runtime.getRuntime().availableProcessors() * 2 + 1;
+        // Standard: feste Poolgröße, damit unter Last keine Verbindungen aufgebaut werden müssen
+        this.minimumIdle = minimumIdle >= 0 ? Math.min(minimumIdle, this.maximumPoolSize) : this.maximumPoolSize;
+        this.connectionTimeout = connectionTimeout;
+        this.idleTimeout = idleTimeout;
+        this.maxLifetime = maxLifetime;
+        this.keepaliveTime = keepaliveTime;
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        this.prepareThreshold = prepareThreshold;
+        this.reWriteBatchedInserts = reWriteBatchedInserts;
+        this.replicaUrls = replicaUrls.stream().filter(url -> !url.isBlank()).toList();
+    }
+
     @Bean
-    public DataSource dataSource(SecretManagerService secretsService) {
-        DbSecret secret = secretsService.getDbSecret("todo/psql");
+    public DataSource dataSource(SecretsProvider secretsProvider, MeterRegistry meterRegistry, ReadYourWritesTracker readYourWrites) {
+        DbSecret secret = secretsProvider.getDbSecret();
+
+        List<HikariDataSource> pools = new ArrayList<>();
+        HikariDataSource primary = createDataSource(POOL_NAME, secret.toJdbcUrl(), secret);
+        pools.add(primary);
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            // Replikate teilen sich die Zugangsdaten mit dem Primary
+            pools.add(createDataSource(REPLICA_POOL_PREFIX + i, replicaUrls.get(i), secret));
+        }
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        pools.forEach(pool -> pool.setMetricsTrackerFactory(metrics));
 
-        String url = String.format(
-                "jdbc:postgresql://%s:%s/%s",
-                secret.getHost(),
-                secret.getPort(),
-                secret.getDbInstanceIdentifier()
-        );
+        // Rotierte Zugangsdaten ohne neuen Pool übernehmen
+        secretsProvider.onDbSecretChange(updated -> pools.forEach(pool -> rotateCredentials(pool, updated)));
+
+        if (pools.size() == 1) {
+            return primary;
+        }
+        return routingDataSource(primary, pools.subList(1, pools.size()), readYourWrites);
+    }
 
+    static DataSource routingDataSource(DataSource primary, List<? extends DataSource> replicas, ReadYourWritesTracker readYourWrites) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas, readYourWrites));
+        // Hikari-Defaults, sonst holt der Proxy beim Start eine Verbindung nur um sie abzufragen
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    HikariDataSource createDataSource(String poolName, String jdbcUrl, DbSecret secret) {
         HikariDataSource ds = new HikariDataSource();
-        ds.setJdbcUrl(url);
+        ds.setPoolName(poolName);
+        ds.setJdbcUrl(jdbcUrl);
         ds.setUsername(secret.getUsername());
         ds.setPassword(secret.getPassword());
 
+        ds.setMaximumPoolSize(maximumPoolSize);
+        ds.setMinimumIdle(minimumIdle);
+        ds.setConnectionTimeout(connectionTimeout.toMillis());
+        ds.setIdleTimeout(idleTimeout.toMillis());
+        ds.setMaxLifetime(maxLifetime.toMillis());
+        ds.setKeepaliveTime(keepaliveTime.toMillis());
+        ds.setLeakDetectionThreshold(leakDetectionThreshold.toMillis());
+
+        // PgJDBC: server-side prepared statements ab n-ter Ausführung, Batch-Inserts als Multi-Row-INSERT.
+        // Als String übergeben, der Treiber liest die Properties per getProperty und ignoriert andere Typen
+        ds.addDataSourceProperty("prepareThreshold", String.valueOf(prepareThreshold));
+        ds.addDataSourceProperty("reWriteBatchedInserts", String.valueOf(reWriteBatchedInserts));
+
         return ds;
     }
-}
 
+    /**
+     * New connections use the rotated credentials; idle ones are evicted now and
+     * busy ones are closed when they are returned.
+     */
+    static void rotateCredentials(HikariDataSource ds, DbSecret secret) {
+        ds.getHikariConfigMXBean().setCredentials(Credentials.of(secret.getUsername(), secret.getPassword()));
+
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        if (pool != null) {
+            pool.softEvictConnections();
+        }
+    }
+}
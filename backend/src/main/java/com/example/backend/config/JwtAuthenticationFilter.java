@@ -8,12 +8,13 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import com.example.backend.model.AuthenticatedUser;
+import com.example.backend.service.TokenRevocationService;
 import com.example.backend.utils.JwtService;
+import com.example.backend.utils.VerifiedToken;
 
 import java.io.IOException;
 
@@ -21,11 +22,11 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationService revocationService;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, TokenRevocationService revocationService) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.revocationService = revocationService;
     }
 
     @Override
@@ -42,28 +43,28 @@ protected void doFilterInternal(HttpServletRequest request,
         }
     }
 
-    if (jwt != null) {
+    if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
         try {
-            String username = jwtService.extractUsername(jwt);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            VerifiedToken token = jwtService.verify(jwt);
+
+            // In-memory deny list, no DB round trip per request
+            if (!revocationService.isRevoked(token.getTokenId())) {
+                // Principal comes from the verified token, no users table lookup
+                AuthenticatedUser principal = token.toPrincipal();
+
+                // The verified token is kept as credentials so logout can revoke it
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                principal,
+                                token,
+                                principal.getAuthorities()
+                        );
+
+                authToken.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
 
         } catch (Exception ex) {
@@ -3,15 +3,15 @@ package com.example.backend.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import com.example.backend.service.SecretManagerService;
+import com.example.backend.service.SecretsProvider;
 
 @Configuration
 public class JwtConfig {
 
     @Bean
-    public String jwtSecret(SecretManagerService secretsService) {
-        return secretsService
-                .getJwtSecret("todo/JwtKey")
+    public String jwtSecret(SecretsProvider secretsProvider) {
+        return secretsProvider
+                .getJwtSecret()
                 .getJwtSecret();
     }
 }
@@ -1,21 +1,34 @@
 package com.example.backend.controller;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.backend.dto.AuthTokens;
 import com.example.backend.dto.LoginRequest;
 import com.example.backend.dto.LoginResponse;
 import com.example.backend.dto.RegisterRequest;
 import com.example.backend.service.AuthService;
+import com.example.backend.service.LoginThrottledException;
+import com.example.backend.service.PasswordHashingBusyException;
+import com.example.backend.service.TokenRevocationService;
+import com.example.backend.utils.VerifiedToken;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 
@@ -24,52 +37,76 @@ import jakarta.servlet.http.HttpServletResponse;
 @RequestMapping("/auth")
 public class AuthController {
 
+    private static final String ACCESS_COOKIE = "jwt";
+    private static final String REFRESH_COOKIE = "refresh_token";
+
     private final AuthService authService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, TokenRevocationService tokenRevocationService) {
         this.authService = authService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
 @PostMapping("/register")
-public ResponseEntity<?> register(@RequestBody RegisterRequest request, HttpServletResponse response) {
-    try {
-        String jwt = authService.register(request.getUsername(), request.getPassword());
-
-        ResponseCookie cookie = ResponseCookie.from("jwt", jwt)
-                                              .httpOnly(true)
-                                              .path("/")
-                                              .maxAge(24 * 60 * 60)
-                                              .sameSite("None")
-                                              .secure(true)
-                                              .domain(".test-app.info")
-                                              .build();
-        response.addHeader("Set-Cookie", cookie.toString());
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(new LoginResponse(jwt));
-    } catch (IllegalArgumentException e) {
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
-    }
+public CompletableFuture<ResponseEntity<LoginResponse>> register(@RequestBody RegisterRequest request) {
+    return authService.register(request.getUsername(), request.getPassword())
+        .thenApply(tokens -> ResponseEntity.status(HttpStatus.CREATED)
+                                           .header(HttpHeaders.SET_COOKIE, accessCookie(tokens).toString())
+                                           .header(HttpHeaders.SET_COOKIE, refreshCookie(tokens).toString())
+                                           .body(new LoginResponse(tokens.getAccessToken())));
 }
 
 @PostMapping("/login")
-public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request, HttpServletResponse response) {
-
-    // Token generieren
-    String jwt = authService.login(request.getUsername(), request.getPassword());
-
-    // JWT als HttpOnly-Cookie setzen
-    ResponseCookie cookie = ResponseCookie.from("jwt", jwt)
-                                          .httpOnly(true)    // nur Server-seitig lesbar
-                                          .path("/")         // überall gültig
-                                          .maxAge(24 * 60 * 60) // 1 Tag
-                                          .sameSite("None")   
-                                          .secure(true)
-                                          .domain(".test-app.info")
-                                          .build();
-    response.addHeader("Set-Cookie", cookie.toString());
-
-    // Optional: Token auch im Body zurückgeben (für Testzwecke)
-    return ResponseEntity.ok(new LoginResponse(jwt));
+public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+
+    // Token generieren (BCrypt läuft im Hashing-Pool, nicht im Request-Thread).
+    // getRemoteAddr ist dank server.forward-headers-strategy=native die Client-IP, nicht die des ALB
+    return authService.login(request.getUsername(), request.getPassword(), httpRequest.getRemoteAddr())
+        // JWT und Refresh-Token als HttpOnly-Cookies setzen
+        // Optional: Token auch im Body zurückgeben (für Testzwecke)
+        .thenApply(tokens -> ResponseEntity.ok()
+                                           .header(HttpHeaders.SET_COOKIE, accessCookie(tokens).toString())
+                                           .header(HttpHeaders.SET_COOKIE, refreshCookie(tokens).toString())
+                                           .body(new LoginResponse(tokens.getAccessToken())));
+}
+
+@PostMapping("/refresh")
+public ResponseEntity<LoginResponse> refresh(@CookieValue(name = REFRESH_COOKIE, required = false) String refreshToken) {
+    if (refreshToken == null || refreshToken.isBlank()) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    // Neues Token-Paar ohne Passwort-Hashing, der alte Refresh-Token ist danach verbraucht
+    AuthTokens tokens = authService.refresh(refreshToken);
+    return ResponseEntity.ok()
+                         .header(HttpHeaders.SET_COOKIE, accessCookie(tokens).toString())
+                         .header(HttpHeaders.SET_COOKIE, refreshCookie(tokens).toString())
+                         .body(new LoginResponse(tokens.getAccessToken()));
+}
+
+@ExceptionHandler(IllegalArgumentException.class)
+public ResponseEntity<String> handleConflict(IllegalArgumentException e) {
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+}
+
+@ExceptionHandler(AuthenticationException.class)
+public ResponseEntity<String> handleBadCredentials(AuthenticationException e) {
+    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Ungültige Anmeldedaten");
+}
+
+@ExceptionHandler(LoginThrottledException.class)
+public ResponseEntity<String> handleThrottled(LoginThrottledException e) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                         .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                         .body(e.getMessage());
+}
+
+@ExceptionHandler(PasswordHashingBusyException.class)
+public ResponseEntity<String> handleHashingBusy(PasswordHashingBusyException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                         .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                         .body(e.getMessage());
 }
 
 
@@ -86,21 +123,45 @@ public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request, Ht
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletResponse response) {
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @CookieValue(name = REFRESH_COOKIE, required = false) String refreshToken,
+                                       HttpServletResponse response) {
+        // Open to anonymous callers: with an expired access token there is no principal,
+        // but the refresh token still has to be revoked and both cookies cleared.
+        // Revoke the token itself, clearing the cookie alone leaves it usable
+        if (authentication != null && authentication.getCredentials() instanceof VerifiedToken token) {
+            tokenRevocationService.revoke(token.getTokenId(), token.getExpiresAt());
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            authService.logout(refreshToken);
+        }
+
         // Clear server-side security context
         SecurityContextHolder.clearContext();
 
-        // Overwrite JWT cookie to remove it in the browser
-        ResponseCookie cookie = ResponseCookie.from("jwt", "")
-                                              .httpOnly(true)
-                                              .path("/")
-                                              .maxAge(0)
-                                              .sameSite("None")
-                                              .secure(true)
-                                              .domain(".test-app.info")
-                                              .build();
-        response.addHeader("Set-Cookie", cookie.toString());
+        // Overwrite JWT and refresh cookies to remove them in the browser
+        response.addHeader("Set-Cookie", cookie(ACCESS_COOKIE, "", Duration.ZERO).toString());
+        response.addHeader("Set-Cookie", cookie(REFRESH_COOKIE, "", Duration.ZERO).toString());
 
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseCookie accessCookie(AuthTokens tokens) {
+        return cookie(ACCESS_COOKIE, tokens.getAccessToken(), tokens.getAccessTokenTtl());
+    }
+
+    private static ResponseCookie refreshCookie(AuthTokens tokens) {
+        return cookie(REFRESH_COOKIE, tokens.getRefreshToken(), tokens.getRefreshTokenTtl());
+    }
+
+    private static ResponseCookie cookie(String name, String value, Duration maxAge) {
+        return ResponseCookie.from(name, value)
+                             .httpOnly(true)    // nur Server-seitig lesbar
+                             .path("/")         // überall gültig
+                             .maxAge(maxAge)
+                             .sameSite("None")
+                             .secure(true)
+                             .domain(".test-app.info")
+                             .build();
+    }
 }
@@ -4,115 +4,365 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import com.example.backend.dto.BatchResponse;
+import com.example.backend.dto.BulkActionResponse;
+import com.example.backend.dto.CursorPage;
+import com.example.backend.dto.DayCount;
+import com.example.backend.dto.ImportResponse;
 import com.example.backend.dto.PagedResponse;
+import com.example.backend.dto.TitleSuggestion;
+import com.example.backend.dto.ToDoPatch;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.dto.ToDoSummary;
+import com.example.backend.model.AuthenticatedUser;
 import com.example.backend.model.ToDo;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.service.InvalidBatchException;
+import com.example.backend.service.InvalidBulkActionException;
+import com.example.backend.service.InvalidCursorException;
+import com.example.backend.service.InvalidPatchException;
+import com.example.backend.service.InvalidRangeException;
+import com.example.backend.service.InvalidSortException;
+import com.example.backend.service.InvalidToDoException;
+import com.example.backend.service.ToDoExportService;
+import com.example.backend.service.ToDoFileFormat;
+import com.example.backend.service.ToDoImportService;
+import com.example.backend.service.ToDoNotFoundException;
 import com.example.backend.service.ToDoService;
+import com.example.backend.service.ToDoSortKey;
+import com.example.backend.service.ToDoTitleIndex;
+import com.example.backend.service.UnsupportedFormatException;
+import com.example.backend.service.VersionConflictException;
+import com.example.backend.service.VersionedList;
+import com.example.backend.utils.ETags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/todos")
 public class ToDoController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Browser dürfen speichern, müssen aber jedes Mal per If-None-Match nachfragen
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ToDoService todoService;
     private final UserRepository userRepository;
+    private final ToDoExportService exportService;
+    private final ToDoImportService importService;
+    private final ToDoTitleIndex titleIndex;
 
-    public ToDoController(ToDoService todoService, UserRepository userRepository) {
+    public ToDoController(ToDoService todoService, UserRepository userRepository,
+                          ToDoExportService exportService, ToDoImportService importService,
+                          ToDoTitleIndex titleIndex) {
         this.todoService = todoService;
         this.userRepository = userRepository;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.titleIndex = titleIndex;
     }
 
-    private User getCurrentUser() {
+    private Long getCurrentUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
+        if (auth == null || !auth.isAuthenticated()
+                || !(auth.getPrincipal() instanceof AuthenticatedUser principal)) {
             throw new RuntimeException("User not authenticated");
         }
-        String username = auth.getName();
-        return userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        return principal.getId();
+    }
+
+    // Reference proxy: the id comes from the JWT, so no users table lookup is needed
+    private User getCurrentUser() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    private static ResponseEntity<ToDoResponse> withETag(ResponseEntity.BodyBuilder builder, ToDoResponse todo) {
+        return builder.eTag(ETags.forVersion(todo.getVersion())).cacheControl(REVALIDATE).body(todo);
+    }
+
+    /**
+     * Answers a list request from the user's list version. Version and list
+     * come from the same read, so the tag never claims a newer state than the
+     * body it is sent with; a matching If-None-Match skips the list query.
+     */
+    private <T> ResponseEntity<T> conditionalList(String ifNoneMatch, Supplier<T> query, Object... params) {
+        Long userId = getCurrentUserId();
+        VersionedList<T> list = todoService.readList(userId,
+            version -> ETags.matchesAny(ifNoneMatch, ETags.forList(userId, version, params)), query);
+        String etag = ETags.forList(userId, list.version(), params);
+        if (list.notModified()) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(list.body());
     }
 
     @PostMapping
-    public ResponseEntity<ToDo> create(@RequestBody ToDo todo) {
+    public ResponseEntity<ToDoResponse> create(@RequestBody ToDo todo) {
         User user = getCurrentUser();
         todo.setUser(user);
         ToDo created = todoService.createToDo(todo);
-        return ResponseEntity.created(URI.create("/api/todos/" + created.getId())).body(created);
+        return withETag(ResponseEntity.created(URI.create("/api/todos/" + created.getId())), ToDoResponse.from(created));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ToDo> get(@PathVariable Long id) {
-        User user = getCurrentUser();
-        return todoService.getToDo(id)
-            .filter(todo -> todo.getUser().getId().equals(user.getId()))
-            .map(ResponseEntity::ok)
+    public ResponseEntity<ToDoResponse> get(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return todoService.getToDo(id, getCurrentUserId())
+            .map(todo -> ETags.matchesAny(ifNoneMatch, ETags.forVersion(todo.getVersion()))
+                ? ToDoController.<ToDoResponse>notModified(ETags.forVersion(todo.getVersion()))
+                : withETag(ResponseEntity.ok(), todo))
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<PagedResponse<ToDo>> list(
+    public ResponseEntity<PagedResponse<ToDoResponse>> list(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
+        // Nur indizierte Sortierungen, alles andere wird vor der Query mit 400 abgelehnt
+        Sort sort = ToDoSortKey.fromAttribute(sortBy).toSort(ToDoSortKey.parseDirection(sortDir));
         User user = getCurrentUser();
-        
-        Sort sort = sortDir.equalsIgnoreCase("ASC") 
-            ? Sort.by(sortBy).ascending() 
-            : Sort.by(sortBy).descending();
-        
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<ToDo> todoPage = todoService.getToDosForUserPaged(user, pageable);
-        
-        PagedResponse<ToDo> response = new PagedResponse<>(
-            todoPage.getContent(),
-            todoPage.getNumber(),
-            todoPage.getSize(),
-            todoPage.getTotalElements(),
-            todoPage.getTotalPages(),
-            todoPage.isLast(),
-            todoPage.isFirst()
-        );
-        
-        return ResponseEntity.ok(response);
+
+        return conditionalList(ifNoneMatch, () -> {
+            Page<ToDoResponse> todoPage = todoService.getToDosForUserPaged(user, pageable);
+
+            return new PagedResponse<>(
+                todoPage.getContent(),
+                todoPage.getNumber(),
+                todoPage.getSize(),
+                todoPage.getTotalElements(),
+                todoPage.getTotalPages(),
+                todoPage.isLast(),
+                todoPage.isFirst()
+            );
+        }, "page", page, size, sort);
+    }
+
+    /**
+     * Cursor mode, selected by the cursor parameter (empty for the first page).
+     * sortBy/sortDir only apply to the first page; afterwards the cursor carries them.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<ToDoResponse>> listByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ToDoSortKey key = ToDoSortKey.fromAttribute(sortBy);
+        Sort.Direction direction = ToDoSortKey.parseDirection(sortDir);
+        User user = getCurrentUser();
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+
+        return conditionalList(ifNoneMatch, () -> todoService.getToDosForUserAfter(
+            user, key, direction, cursor, pageSize, count), "cursor", cursor, pageSize, key, direction, count);
+    }
+
+    @ExceptionHandler({InvalidCursorException.class, InvalidSortException.class, InvalidPatchException.class,
+            InvalidToDoException.class, InvalidBatchException.class, InvalidBulkActionException.class, InvalidRangeException.class,
+            UnsupportedFormatException.class})
+    public ResponseEntity<String> handleBadRequest(RuntimeException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * Full-text search over title and description, best match first. Paged
+     * like the cursor list: pass {@code next} of the previous page as cursor.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<ToDoResponse>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        Long userId = getCurrentUserId();
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+
+        return conditionalList(ifNoneMatch, () -> todoService.searchToDos(userId, q, cursor, pageSize),
+            "search", q, cursor, pageSize);
+    }
+
+    /**
+     * Todos due between from and to, both days inclusive, for the calendar.
+     * Only the fields a day cell shows are returned.
+     */
+    @GetMapping("/range")
+    public ResponseEntity<List<ToDoSummary>> range(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        Long userId = getCurrentUserId();
+        return conditionalList(ifNoneMatch, () -> todoService.getToDosDueBetween(userId, from, to), "range", from, to);
+    }
+
+    /** Same window as a count per day, for months too dense to list. */
+    @GetMapping(value = "/range", params = "counts=true")
+    public ResponseEntity<List<DayCount>> rangeCounts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        Long userId = getCurrentUserId();
+        return conditionalList(ifNoneMatch, () -> todoService.countToDosDueByDay(userId, from, to), "range-counts", from, to);
+    }
+
+    /**
+     * Title suggestions while typing, served from memory. No ETag: the list
+     * version lookup would cost the database round trip the index avoids.
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<TitleSuggestion>> autocomplete(@RequestParam String prefix,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(titleIndex.suggest(getCurrentUserId(), prefix, limit));
     }
 
     @GetMapping("/completed/{completed}")
-    public ResponseEntity<List<ToDo>> listByCompleted(@PathVariable Boolean completed) {
+    public ResponseEntity<List<ToDoResponse>> listByCompleted(@PathVariable Boolean completed,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         User user = getCurrentUser();
-        List<ToDo> todos = todoService.getCompletedToDosForUser(user, completed);
-        return ResponseEntity.ok(todos);
+        return conditionalList(ifNoneMatch, () -> todoService.getCompletedToDosForUser(user, completed),
+            "completed", completed);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ToDo> update(@PathVariable Long id, @RequestBody ToDo todo) {
-        User user = getCurrentUser();
-        return todoService.getToDo(id)
-            .filter(existing -> existing.getUser().getId().equals(user.getId()))
-            .map(existing -> {
-                todo.setId(id);
-                todo.setUser(user);
-                return ResponseEntity.ok(todoService.updateToDo(id, todo));
-            })
-            .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<ToDoResponse> update(@PathVariable Long id, @RequestBody ToDo todo,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Besitz und If-Match werden im UPDATE selbst geprüft, 0 Zeilen -> 404 bzw. 412
+        return withETag(ResponseEntity.ok(),
+            todoService.updateToDo(id, getCurrentUserId(), ETags.expectedVersion(ifMatch), todo));
+    }
+
+    /**
+     * JSON merge patch: only the fields in the body change, null clears
+     * description or dueDate. Also accepted as plain application/json.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ToDoResponse> patch(@PathVariable Long id, @RequestBody ToDoPatch patch,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(ResponseEntity.ok(),
+            todoService.patchToDo(id, getCurrentUserId(), ETags.expectedVersion(ifMatch), patch));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        User user = getCurrentUser();
-        return todoService.getToDo(id)
-            .filter(todo -> todo.getUser().getId().equals(user.getId()))
-            .map(todo -> {
-                todoService.deleteToDo(id);
-                return ResponseEntity.noContent().<Void>build();
-            })
-            .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        todoService.deleteToDo(id, getCurrentUserId(), ETags.expectedVersion(ifMatch));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Full export as NDJSON (default) or CSV. Written synchronously to the
+     * response while the rows are read, so neither side holds the whole list.
+     */
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ToDoFileFormat fileFormat = ToDoFileFormat.fromParameter(format);
+        Long userId = getCurrentUserId();
+
+        response.setContentType(fileFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("todos." + fileFormat.getExtension()).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        exportService.export(userId, fileFormat, response.getOutputStream());
+    }
+
+    /**
+     * Import from the raw request body in the same formats as the export
+     * (NDJSON also as a single JSON array). Rows are parsed while the upload
+     * arrives and saved in chunks; invalid rows are skipped and reported.
+     * Input that cannot be read to the end (broken syntax, a row over the
+     * size limits) answers 400; the rows before it are still imported and
+     * listed in the summary.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportResponse> importToDos(@RequestParam(defaultValue = "ndjson") String format,
+                                                      HttpServletRequest request) throws IOException {
+        ToDoFileFormat fileFormat = ToDoFileFormat.fromParameter(format);
+        ImportResponse result = importService.importToDos(getCurrentUser(), fileFormat, request.getInputStream());
+        return result.isCompleted() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+
+    /**
+     * Batch endpoints: one transaction per call, one result per item in
+     * request order. The call itself answers 200 unless the batch as a whole
+     * is invalid (empty or too large).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse<ToDoResponse>> createBatch(@RequestBody List<ToDo> todos) {
+        return ResponseEntity.ok(todoService.createToDos(getCurrentUser(), todos));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResponse<ToDoResponse>> updateBatch(@RequestBody List<ToDo> todos) {
+        return ResponseEntity.ok(todoService.updateToDos(getCurrentUserId(), todos));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResponse<ToDoResponse>> deleteBatch(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(todoService.deleteToDos(getCurrentUserId(), ids));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponse<ToDoResponse>> getBatch(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(todoService.getToDos(getCurrentUserId(), ids));
+    }
+
+    /** Marks all open todos as completed. */
+    @PostMapping("/complete-all")
+    public ResponseEntity<BulkActionResponse> completeAll() {
+        return ResponseEntity.ok(new BulkActionResponse(todoService.completeAll(getCurrentUserId())));
+    }
+
+    /** Deletes all completed todos. */
+    @DeleteMapping("/completed")
+    public ResponseEntity<BulkActionResponse> deleteCompleted() {
+        return ResponseEntity.ok(new BulkActionResponse(todoService.deleteCompleted(getCurrentUserId())));
+    }
+
+    /** Moves the due date of all open, overdue todos by {@code days}. */
+    @PostMapping("/overdue/reschedule")
+    public ResponseEntity<BulkActionResponse> rescheduleOverdue(@RequestParam int days) {
+        return ResponseEntity.ok(new BulkActionResponse(todoService.shiftOverdue(getCurrentUserId(), days)));
+    }
+
+    @ExceptionHandler(ToDoNotFoundException.class)
+    public ResponseEntity<Void> handleNotFound(ToDoNotFoundException e) {
+        return ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<String> handleVersionConflict(VersionConflictException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
     }
 }
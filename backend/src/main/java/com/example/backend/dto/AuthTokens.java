@@ -0,0 +1,37 @@
+package com.example.backend.dto;
+
+import java.time.Duration;
+
+/**
+ * Short-lived access token plus the opaque refresh token that replaces it.
+ */
+public class AuthTokens {
+
+    private final String accessToken;
+    private final Duration accessTokenTtl;
+    private final String refreshToken;
+    private final Duration refreshTokenTtl;
+
+    public AuthTokens(String accessToken, Duration accessTokenTtl, String refreshToken, Duration refreshTokenTtl) {
+        this.accessToken = accessToken;
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshToken = refreshToken;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public Duration getRefreshTokenTtl() {
+        return refreshTokenTtl;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.dto;
+
+/**
+ * Outcome of one item of a batch request. {@code index} is the position in the
+ * request, {@code status} an HTTP status code; {@code body} is set on success
+ * and {@code error} otherwise.
+ */
+public class BatchItemResult<T> {
+    private int index;
+    private Long id;
+    private int status;
+    private String error;
+    private T body;
+
+    public BatchItemResult() {}
+
+    public BatchItemResult(int index, Long id, int status, String error, T body) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+        this.body = body;
+    }
+
+    public static <T> BatchItemResult<T> success(int index, Long id, int status, T body) {
+        return new BatchItemResult<>(index, id, status, null, body);
+    }
+
+    public static <T> BatchItemResult<T> failure(int index, Long id, int status, String error) {
+        return new BatchItemResult<>(index, id, status, error, null);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public T getBody() {
+        return body;
+    }
+
+    public void setBody(T body) {
+        this.body = body;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * Per-item results of a batch request, in request order. Failed items do not
+ * roll back the successful ones.
+ */
+public class BatchResponse<T> {
+    private List<BatchItemResult<T>> results;
+    private int succeeded;
+    private int failed;
+
+    public BatchResponse() {}
+
+    public BatchResponse(List<BatchItemResult<T>> results) {
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(r -> r.getStatus() < 400).count();
+        this.failed = results.size() - succeeded;
+    }
+
+    public List<BatchItemResult<T>> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResult<T>> results) {
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+/** Result of a set-based bulk action: how many todos it changed or removed. */
+public class BulkActionResponse {
+    private int affected;
+
+    public BulkActionResponse() {}
+
+    public BulkActionResponse(int affected) {
+        this.affected = affected;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+
+    public void setAffected(int affected) {
+        this.affected = affected;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. {@code next} is null on the last page;
+ * {@code totalElements} is only filled when the client asked for a count.
+ */
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String next;
+    private Long totalElements;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, int size, String next, Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.next = next;
+        this.totalElements = totalElements;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.backend.dto;
+
+import java.time.LocalDate;
+
+/** Number of todos due on one day. Days without todos are left out. */
+public class DayCount {
+    private LocalDate date;
+    private long count;
+
+    public DayCount() {}
+
+    public DayCount(LocalDate date, long count) {
+        this.date = date;
+        this.count = count;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of an import. Only the first errors are listed, {@code failed}
+ * counts all of them. {@code completed} is false when the file could not be
+ * read to the end; the rows before that point are imported.
+ */
+public class ImportResponse {
+    private long rows;
+    private long imported;
+    private long failed;
+    private boolean completed;
+    private List<ImportRowError> errors;
+
+    public ImportResponse() {}
+
+    public ImportResponse(long rows, long imported, long failed, boolean completed, List<ImportRowError> errors) {
+        this.rows = rows;
+        this.imported = imported;
+        this.failed = failed;
+        this.completed = completed;
+        this.errors = errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportRowError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.dto;
+
+/** A row the import skipped. Rows are counted from 1, the CSV header is row 0. */
+public class ImportRowError {
+    private long row;
+    private String error;
+
+    public ImportRowError() {}
+
+    public ImportRowError(long row, String error) {
+        this.row = row;
+        this.error = error;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.dto;
+
+/** One autocomplete hit: the todo and its full title. */
+public class TitleSuggestion {
+    private Long id;
+    private String title;
+
+    public TitleSuggestion() {}
+
+    public TitleSuggestion(Long id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
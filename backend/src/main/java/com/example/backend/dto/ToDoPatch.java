@@ -0,0 +1,68 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Body of a JSON merge patch (RFC 7386) on a todo. Jackson only calls the
+ * setters of properties that are in the document, so the setters record which
+ * fields were sent: a missing field stays untouched, an explicit null clears it.
+ */
+public class ToDoPatch {
+
+    public enum Field { TITLE, DESCRIPTION, COMPLETED, DUE_DATE }
+
+    private final Set<Field> present = EnumSet.noneOf(Field.class);
+
+    private String title;
+    private String description;
+    private Boolean completed;
+    private LocalDateTime dueDate;
+
+    public ToDoPatch() {}
+
+    public boolean has(Field field) {
+        return present.contains(field);
+    }
+
+    public boolean isEmpty() {
+        return present.isEmpty();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        present.add(Field.TITLE);
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        present.add(Field.DESCRIPTION);
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+        present.add(Field.COMPLETED);
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+        present.add(Field.DUE_DATE);
+    }
+}
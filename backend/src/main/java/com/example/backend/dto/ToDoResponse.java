@@ -0,0 +1,103 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.backend.model.ToDo;
+
+/**
+ * Read model of a todo. List queries fill it straight from the selected
+ * columns, so the entity and its user association are never loaded for them.
+ */
+public class ToDoResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private Boolean completed;
+    private LocalDateTime dueDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    public ToDoResponse() {}
+
+    public ToDoResponse(Long id, String title, String description, Boolean completed,
+                        LocalDateTime dueDate, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    public static ToDoResponse from(ToDo todo) {
+        return new ToDoResponse(todo.getId(), todo.getTitle(), todo.getDescription(), todo.getCompleted(),
+                todo.getDueDate(), todo.getCreatedAt(), todo.getUpdatedAt(), todo.getVersion());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
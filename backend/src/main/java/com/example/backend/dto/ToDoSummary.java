@@ -0,0 +1,55 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Calendar entry of a todo: only what a day cell shows. The full todo is
+ * loaded by id when it is opened.
+ */
+public class ToDoSummary {
+    private Long id;
+    private String title;
+    private Boolean completed;
+    private LocalDateTime dueDate;
+
+    public ToDoSummary() {}
+
+    public ToDoSummary(Long id, String title, Boolean completed, LocalDateTime dueDate) {
+        this.id = id;
+        this.title = title;
+        this.completed = completed;
+        this.dueDate = dueDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+}
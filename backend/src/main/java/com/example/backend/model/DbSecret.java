@@ -10,4 +10,13 @@ public class DbSecret {
     private String host;
     private String port;
     private String dbInstanceIdentifier;
+    // Nur lokal gesetzt (DB_URL), AWS liefert Host/Port/Instanz einzeln
+    private String jdbcUrl;
+
+    public String toJdbcUrl() {
+        if (jdbcUrl != null) {
+            return jdbcUrl;
+        }
+        return String.format("jdbc:postgresql://%s:%s/%s", host, port, dbInstanceIdentifier);
+    }
 }
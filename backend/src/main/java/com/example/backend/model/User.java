@@ -29,4 +29,8 @@ public class User {
     @Column(name = "password", nullable = false, length = 255)
     private String password;
 
+    // Wird nur per UPDATE ... + 1 hochgezählt, nie über das Entity
+    @Column(name = "todos_version", nullable = false, insertable = false, updatable = false)
+    private Long todosVersion;
+
 }
@@ -3,14 +3,101 @@ package com.example.backend.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.backend.dto.DayCount;
+import com.example.backend.dto.TitleSuggestion;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.dto.ToDoSummary;
 import com.example.backend.model.ToDo;
 import com.example.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ToDoRepository extends JpaRepository<ToDo, Long> {
+public interface ToDoRepository extends JpaRepository<ToDo, Long>, JpaSpecificationExecutor<ToDo>, ToDoRepositoryCustom {
     List<ToDo> findByUser(User user);
     Page<ToDo> findByUser(User user, Pageable pageable);
+    long countByUser(User user);
     List<ToDo> findByUserAndCompleted(User user, Boolean completed);
+
+    // Projektionen: nur die ausgelieferten Spalten, ohne Entity und ohne User-Join
+    String TODO_RESPONSE = "new com.example.backend.dto.ToDoResponse(t.id, t.title, t.description, t.completed, t.dueDate, t.createdAt, t.updatedAt, t.version)";
+
+    @Query(value = "select " + TODO_RESPONSE + " from ToDo t where t.user = :user",
+           countQuery = "select count(t) from ToDo t where t.user = :user")
+    Page<ToDoResponse> findResponsesByUser(@Param("user") User user, Pageable pageable);
+
+    @Query("select " + TODO_RESPONSE + " from ToDo t where t.user = :user and t.completed = :completed order by t.id desc")
+    List<ToDoResponse> findResponsesByUserAndCompleted(@Param("user") User user, @Param("completed") Boolean completed);
+
+    // Besitz-Prüfung in der WHERE-Klausel: fremde und fehlende IDs sind dasselbe, eine Query statt find + filter
+    @Query("select " + TODO_RESPONSE + " from ToDo t where t.id = :id and t.user.id = :userId")
+    Optional<ToDoResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("select " + TODO_RESPONSE + " from ToDo t where t.id in :ids and t.user.id = :userId")
+    List<ToDoResponse> findResponsesByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // Für Sammel-Updates: Entities laden, Änderungen gehen per Dirty Checking gebatcht raus
+    @Query("select t from ToDo t where t.id in :ids and t.user.id = :userId")
+    List<ToDo> findAllByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // Zeitraum auf (user_id, due_date, id): Bereichsscan, die Sortierung kommt aus dem Index
+    @Query("select new com.example.backend.dto.ToDoSummary(t.id, t.title, t.completed, t.dueDate) from ToDo t "
+         + "where t.user.id = :userId and t.dueDate >= :from and t.dueDate < :to order by t.dueDate, t.id")
+    List<ToDoSummary> findSummariesDueBetween(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    // Liest nur due_date und ist damit per Index-Only-Scan beantwortbar
+    @Query("select new com.example.backend.dto.DayCount(cast(t.dueDate as LocalDate), count(t)) from ToDo t "
+         + "where t.user.id = :userId and t.dueDate >= :from and t.dueDate < :to "
+         + "group by cast(t.dueDate as LocalDate) order by cast(t.dueDate as LocalDate)")
+    List<DayCount> countDueByDay(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    // Nur id und Titel, damit der Autocomplete-Index ohne Entities aufgebaut wird
+    @Query("select new com.example.backend.dto.TitleSuggestion(t.id, t.title) from ToDo t where t.user.id = :userId")
+    List<TitleSuggestion> findTitlesByUserId(@Param("userId") Long userId);
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Export: Cursor statt Liste, Postgres liefert blockweise (nur innerhalb einer Transaktion), read-only ohne Snapshots
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from ToDo t where t.user.id = :userId order by t.id")
+    Stream<ToDo> streamByUserId(@Param("userId") Long userId);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    // version null: ohne If-Match, sonst nur löschen wenn der Client den aktuellen Stand kennt
+    @Modifying
+    @Query("delete from ToDo t where t.id = :id and t.user.id = :userId and (:version is null or t.version = :version)")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version);
+
+    // Mengenoperationen: ein Statement pro Aktion, updated_at explizit weil @PreUpdate hier nicht greift
+    @Modifying
+    @Query("update ToDo t set t.completed = true, t.updatedAt = :now, t.version = t.version + 1 "
+         + "where t.user.id = :userId and t.completed = false")
+    int completeAllByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from ToDo t where t.user.id = :userId and t.completed = true")
+    int deleteCompletedByUserId(@Param("userId") Long userId);
+
+    // Nur offene, überfällige ToDos: trifft den Teilindex idx_todos_open_user_id_due_date
+    @Modifying
+    @Query(value = "update todos set due_date = due_date + make_interval(days => :days), updated_at = :now, version = version + 1 "
+                 + "where user_id = :userId and completed = false and due_date < :now", nativeQuery = true)
+    int shiftOverdueByUserId(@Param("userId") Long userId, @Param("days") int days, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,41 @@
+package com.example.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.backend.dto.ToDoPatch;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.model.ToDo;
+
+public interface ToDoRepositoryCustom {
+
+    /** Like findBy(spec, ...) but selects only the ToDoResponse columns. No count query. */
+    List<ToDoResponse> findResponses(Specification<ToDo> spec, Sort sort, int limit);
+
+    /**
+     * Overwrites the editable fields of the user's todo in a single
+     * UPDATE ... RETURNING. With a version only that version is updated
+     * (If-Match). Empty if no row matched.
+     */
+    Optional<ToDoResponse> updateByIdAndUserId(Long id, Long userId, Long version, ToDo values);
+
+    /**
+     * Same as updateByIdAndUserId, but only the fields present in the patch are
+     * written. The patch must not be empty.
+     */
+    Optional<ToDoResponse> patchByIdAndUserId(Long id, Long userId, Long version, ToDoPatch patch);
+
+    /** Deletes the user's todos among {@code ids} in one statement and returns the ids actually deleted. */
+    List<Long> deleteAllByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    /**
+     * Full-text search over title and description, best match first (rank,
+     * then id, both descending). With {@code afterId} set only hits after
+     * that (rank, id) position are returned.
+     */
+    List<ToDoSearchHit> search(Long userId, String query, Float afterRank, Long afterId, int limit);
+}
@@ -0,0 +1,164 @@
+package com.example.backend.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.example.backend.dto.ToDoPatch;
+import com.example.backend.dto.ToDoPatch.Field;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.model.ToDo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class ToDoRepositoryImpl implements ToDoRepositoryCustom {
+
+    // Gleiche Spalten und Reihenfolge wie der ToDoResponse-Konstruktor
+    private static final String RESPONSE_COLUMNS = "id, title, description, completed, due_date, created_at, updated_at, version";
+
+    /** One SET entry; the column name doubles as the parameter name. */
+    private record Assignment(String column, Object value, Class<?> type) {}
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ToDoResponse> findResponses(Specification<ToDo> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ToDoResponse> query = cb.createQuery(ToDoResponse.class);
+        Root<ToDo> root = query.from(ToDo.class);
+
+        query.select(cb.construct(ToDoResponse.class,
+                root.get("id"), root.get("title"), root.get("description"), root.get("completed"),
+                root.get("dueDate"), root.get("createdAt"), root.get("updatedAt"), root.get("version")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<ToDoResponse> updateByIdAndUserId(Long id, Long userId, Long version, ToDo values) {
+        return updateReturning(id, userId, version, List.of(
+                new Assignment("title", values.getTitle(), String.class),
+                new Assignment("description", values.getDescription(), String.class),
+                new Assignment("completed", values.getCompleted(), Boolean.class),
+                new Assignment("due_date", values.getDueDate(), LocalDateTime.class)));
+    }
+
+    @Override
+    public Optional<ToDoResponse> patchByIdAndUserId(Long id, Long userId, Long version, ToDoPatch patch) {
+        // Nur die gesendeten Spalten stehen im SET, der Rest der Zeile bleibt unberührt
+        List<Assignment> assignments = new ArrayList<>();
+        if (patch.has(Field.TITLE)) {
+            assignments.add(new Assignment("title", patch.getTitle(), String.class));
+        }
+        if (patch.has(Field.DESCRIPTION)) {
+            assignments.add(new Assignment("description", patch.getDescription(), String.class));
+        }
+        if (patch.has(Field.COMPLETED)) {
+            assignments.add(new Assignment("completed", patch.getCompleted(), Boolean.class));
+        }
+        if (patch.has(Field.DUE_DATE)) {
+            assignments.add(new Assignment("due_date", patch.getDueDate(), LocalDateTime.class));
+        }
+        return updateReturning(id, userId, version, assignments);
+    }
+
+    /**
+     * UPDATE ... WHERE id AND user_id ... RETURNING the response columns, so
+     * the write and the read-back are one round trip. updated_at and version
+     * are set here because native statements bypass @PreUpdate and @Version.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Optional<ToDoResponse> updateReturning(Long id, Long userId, Long version, List<Assignment> assignments) {
+        List<Assignment> all = new ArrayList<>(assignments);
+        all.add(new Assignment("updated_at", LocalDateTime.now(), LocalDateTime.class));
+
+        String sql = "update todos set "
+                + all.stream().map(a -> a.column() + " = :" + a.column()).collect(Collectors.joining(", "))
+                + ", version = version + 1"
+                + " where id = :id and user_id = :userId"
+                + (version != null ? " and version = :version" : "")
+                + " returning " + RESPONSE_COLUMNS;
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql, Object[].class).unwrap(NativeQuery.class);
+        // Typisierte Parameter, sonst bindet Hibernate null als bytea und Postgres lehnt ab
+        for (Assignment a : all) {
+            query.setParameter(a.column(), a.value(), (Class) a.type());
+        }
+        query.setParameter("id", id, Long.class)
+                .setParameter("userId", userId, Long.class);
+        if (version != null) {
+            query.setParameter("version", version, Long.class);
+        }
+
+        return query.getResultList().stream().findFirst().map(ToDoRepositoryImpl::toResponse);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> deleteAllByIdInAndUserId(Collection<Long> ids, Long userId) {
+        // RETURNING liefert die gelöschten IDs, so ist der Status je Element ohne vorheriges SELECT bekannt
+        List<Number> deleted = entityManager
+                .createNativeQuery("delete from todos where id in (:ids) and user_id = :userId returning id")
+                .setParameter("ids", ids)
+                .setParameter("userId", userId)
+                .getResultList();
+        return deleted.stream().map(Number::longValue).toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ToDoSearchHit> search(Long userId, String query, Float afterRank, Long afterId, int limit) {
+        // websearch_to_tsquery versteht "Phrasen", OR und -Ausschluss und wirft bei beliebiger Eingabe keinen Syntaxfehler.
+        // GIN-Index auf search_vector und (user_id, id)-Index werden per BitmapAnd kombiniert
+        String sql = "select " + RESPONSE_COLUMNS + ", ts_rank(search_vector, query) as rank"
+                + " from todos, websearch_to_tsquery('simple', :query) query"
+                + " where user_id = :userId and search_vector @@ query"
+                + (afterId != null ? " and (ts_rank(search_vector, query), id) < (cast(:afterRank as real), :afterId)" : "")
+                + " order by rank desc, id desc"
+                + " limit :limit";
+
+        NativeQuery<Object[]> nativeQuery = entityManager.createNativeQuery(sql, Object[].class).unwrap(NativeQuery.class);
+        nativeQuery.setParameter("query", query, String.class)
+                .setParameter("userId", userId, Long.class)
+                .setParameter("limit", limit, Integer.class);
+        if (afterId != null) {
+            nativeQuery.setParameter("afterRank", afterRank, Float.class)
+                    .setParameter("afterId", afterId, Long.class);
+        }
+
+        return nativeQuery.getResultList().stream()
+                .map(row -> new ToDoSearchHit(toResponse(row), ((Number) row[8]).floatValue()))
+                .toList();
+    }
+
+    private static ToDoResponse toResponse(Object[] row) {
+        return new ToDoResponse(((Number) row[0]).longValue(), (String) row[1], (String) row[2], (Boolean) row[3],
+                toLocalDateTime(row[4]), toLocalDateTime(row[5]), toLocalDateTime(row[6]), ((Number) row[7]).longValue());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.ToDoResponse;
+
+/** A search result with its ts_rank, which the next page seeks past. */
+public record ToDoSearchHit(ToDoResponse todo, float rank) {}
@@ -3,6 +3,9 @@ package com.example.backend.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.example.backend.model.User;
 
@@ -10,4 +13,12 @@ import com.example.backend.model.User;
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     Optional<User> findByUsername(String username);
+
+    // Listen-Version der ToDos: ein PK-Lookup statt der Listen-Query für If-None-Match
+    @Query("select u.todosVersion from User u where u.id = :id")
+    Optional<Long> findTodosVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update User u set u.todosVersion = u.todosVersion + 1 where u.id = :id")
+    int incrementTodosVersion(@Param("id") Long id);
 }
@@ -1,11 +1,19 @@
 package com.example.backend.service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.example.backend.dto.AuthTokens;
+import com.example.backend.model.AuthenticatedUser;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.utils.JwtService;
@@ -13,44 +21,96 @@ import com.example.backend.utils.JwtService;
 @Service
 public class AuthService {
 
+    private static final String USERNAME_CONSTRAINT = "uq_users_username";
+
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenService refreshTokenService;
+    // Datenbankarbeit nach dem Hashing, damit langsame Statements keine BCrypt-Threads belegen
+    private final Executor ioExecutor;
 
-    public AuthService(AuthenticationManager authenticationManager, JwtService jwtUtil, CustomUserDetailsService userDetailsService, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthService(AuthenticationManager authenticationManager, JwtService jwtUtil, UserRepository userRepository, PasswordHashingService passwordHashing, LoginRateLimiter loginRateLimiter, RefreshTokenService refreshTokenService,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor ioExecutor) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+        this.loginRateLimiter = loginRateLimiter;
+        this.refreshTokenService = refreshTokenService;
+        this.ioExecutor = ioExecutor;
     }
 
-    public String login(String username, String password) {
+    public CompletableFuture<AuthTokens> login(String username, String password, String clientIp) {
+        // Reject throttled attempts before any BCrypt work is queued
+        loginRateLimiter.acquire(username, clientIp);
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-        );
+        // authenticate() verifies the BCrypt hash, so it runs on the hashing pool. The user
+        // lookup inside is served by the CustomUserDetailsService cache in the common case
+        return passwordHashing.submit(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(username, password)))
+                // The user loaded during authentication already carries the id
+                .thenApplyAsync(authentication -> issueTokens((AuthenticatedUser) authentication.getPrincipal()), ioExecutor);
+    }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        String token = jwtUtil.generateToken(userDetails);
-        return token;
+    /**
+     * Inserts the user in one statement. Duplicate names are caught by the
+     * uq_users_username constraint, which also closes the check-then-insert race.
+     */
+    public CompletableFuture<AuthTokens> register(String username, String password) {
+        // Nur das Hashen läuft im Hashing-Pool, INSERT und Token-Ausgabe danach im I/O-Executor
+        return passwordHashing.encode(password).thenApplyAsync(encodedPassword -> {
+            User newUser = new User();
+            newUser.setUsername(username);
+            newUser.setPassword(encodedPassword);
+
+            User saved;
+            try {
+                saved = userRepository.saveAndFlush(newUser);
+            } catch (DataIntegrityViolationException e) {
+                if (isUsernameConflict(e)) {
+                    throw new IllegalArgumentException("Username already exists");
+                }
+                throw e;
+            }
+
+            return issueTokens(AuthenticatedUser.from(saved));
+        }, ioExecutor);
     }
 
-    public String register(String username, String password) {
-        if (userRepository.existsByUsername(username)) {
-            throw new IllegalArgumentException("Username already exists");
-        }
+    /**
+     * Rotates the refresh token and mints a new access token, without any
+     * password hashing.
+     */
+    public AuthTokens refresh(String refreshToken) {
+        AuthenticatedUser user = refreshTokenService.consume(refreshToken)
+                .orElseThrow(() -> new BadCredentialsException("Refresh token invalid or expired"));
+        return issueTokens(user);
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
 
-        User newUser = new User();
-        newUser.setUsername(username);
-        newUser.setPassword(passwordEncoder.encode(password));
-        userRepository.save(newUser);
+    private static boolean isUsernameConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && USERNAME_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        String token = jwtUtil.generateToken(userDetails);
-        return token;
+    private AuthTokens issueTokens(AuthenticatedUser user) {
+        return new AuthTokens(
+                jwtUtil.generateToken(user),
+                jwtUtil.getAccessTokenTtl(),
+                refreshTokenService.issue(user.getId()),
+                refreshTokenService.getTtl()
+        );
     }
 
 }
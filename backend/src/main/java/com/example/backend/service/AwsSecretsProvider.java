@@ -0,0 +1,165 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.DbSecret;
+import com.example.backend.model.JwtSecret;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
+
+/**
+ * Secrets Manager backed provider. Both secrets are fetched in parallel at
+ * startup and refreshed in the background, so requests never wait on AWS.
+ * A failed refresh keeps serving the last value; once that is older than the
+ * TTL, readers retry the fetch themselves.
+ */
+@Service
+@ConditionalOnProperty(name = "app.secrets.provider", havingValue = "aws", matchIfMissing = true)
+public class AwsSecretsProvider implements SecretsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(AwsSecretsProvider.class);
+
+    private final SecretsManagerClient client;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String dbSecretName;
+    private final String jwtSecretName;
+    private final Duration ttl;
+    private final List<Consumer<DbSecret>> dbSecretListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Cached<DbSecret> dbSecret;
+    private volatile Cached<JwtSecret> jwtSecret;
+
+    @Autowired
+    public AwsSecretsProvider(@Value("${app.secrets.aws.region:eu-central-1}") String region,
+                              @Value("${app.secrets.db-secret-name:todo/psql}") String dbSecretName,
+                              @Value("${app.secrets.jwt-secret-name:todo/JwtKey}") String jwtSecretName,
+                              @Value("${app.secrets.ttl:1h}") Duration ttl) {
+        this(SecretsManagerClient.builder()
+                        .region(Region.of(region))
+                        .build(),
+                dbSecretName, jwtSecretName, ttl);
+    }
+
+    AwsSecretsProvider(SecretsManagerClient client, String dbSecretName, String jwtSecretName, Duration ttl) {
+        this.client = client;
+        this.dbSecretName = dbSecretName;
+        this.jwtSecretName = jwtSecretName;
+        this.ttl = ttl;
+        this.executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "secrets-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fetchAll();
+    }
+
+    @Override
+    public DbSecret getDbSecret() {
+        Cached<DbSecret> current = dbSecret;
+        if (current.isOlderThan(ttl)) {
+            refresh();
+            current = dbSecret;
+        }
+        return current.value();
+    }
+
+    @Override
+    public JwtSecret getJwtSecret() {
+        Cached<JwtSecret> current = jwtSecret;
+        if (current.isOlderThan(ttl)) {
+            refresh();
+            current = jwtSecret;
+        }
+        return current.value();
+    }
+
+    @Override
+    public void onDbSecretChange(Consumer<DbSecret> listener) {
+        dbSecretListeners.add(listener);
+    }
+
+    /**
+     * Re-reads both secrets and notifies listeners when the database
+     * credentials were rotated.
+     */
+    @Scheduled(fixedDelayString = "${app.secrets.refresh-interval:PT15M}",
+               initialDelayString = "${app.secrets.refresh-interval:PT15M}")
+    public synchronized void refresh() {
+        DbSecret previous = dbSecret.value();
+        try {
+            fetchAll();
+        } catch (RuntimeException e) {
+            log.warn("Secrets-Refresh fehlgeschlagen, der letzte Wert bleibt in Gebrauch", e);
+            return;
+        }
+
+        DbSecret updated = dbSecret.value();
+        if (!Objects.equals(previous, updated)) {
+            dbSecretListeners.forEach(listener -> listener.accept(updated));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        client.close();
+    }
+
+    private void fetchAll() {
+        CompletableFuture<DbSecret> db = CompletableFuture.supplyAsync(() -> getSecret(dbSecretName, DbSecret.class), executor);
+        CompletableFuture<JwtSecret> jwt = CompletableFuture.supplyAsync(() -> getSecret(jwtSecretName, JwtSecret.class), executor);
+
+        try {
+            CompletableFuture.allOf(db, jwt).join();
+        } catch (RuntimeException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        Instant now = Instant.now();
+        dbSecret = new Cached<>(db.join(), now);
+        jwtSecret = new Cached<>(jwt.join(), now);
+    }
+
+    private <T> T getSecret(String secretName, Class<T> clazz) {
+        GetSecretValueResponse response = client.getSecretValue(
+                GetSecretValueRequest.builder()
+                        .secretId(secretName)
+                        .build()
+        );
+
+        try {
+            return objectMapper.readValue(response.secretString(), clazz);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse secret " + secretName, e);
+        }
+    }
+
+    private record Cached<T>(T value, Instant fetchedAt) {
+
+        boolean isOlderThan(Duration ttl) {
+            return !Instant.now().isBefore(fetchedAt.plus(ttl));
+        }
+    }
+}
@@ -1,31 +1,63 @@
 package com.example.backend.service;
 
-import org.springframework.security.core.userdetails.UserDetails;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.backend.model.AuthenticatedUser;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    // AuthenticatedUser is not a CredentialsContainer, so the AuthenticationManager
+    // cannot erase the password hash of a cached entry
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.auth.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${app.auth.user-cache.ttl:10m}") Duration ttl) {
         this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
     }
 
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public AuthenticatedUser loadUserByUsername(String username) throws UsernameNotFoundException {
+        AuthenticatedUser cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User nicht gefunden"));
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword()) // gehasht!
-                .build();
+        AuthenticatedUser details = AuthenticatedUser.from(user); // Passwort gehasht!
+        cache.put(username, details);
+        return details;
     }
-}
 
+    /**
+     * Drops every cached entry of the user, including one stored under a
+     * username the user has since been renamed from.
+     */
+    public void evict(Long userId) {
+        cache.asMap().values().removeIf(details -> details.getId().equals(userId));
+    }
+}
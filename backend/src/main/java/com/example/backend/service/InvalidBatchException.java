@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Thrown for a batch request that is empty or larger than allowed.
+ * Mapped to 400.
+ */
+public class InvalidBatchException extends RuntimeException {
+
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Thrown for bulk action parameters outside the allowed range.
+ * Mapped to 400.
+ */
+public class InvalidBulkActionException extends RuntimeException {
+
+    public InvalidBulkActionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backend.service;
+
+/**
+ * Thrown for a cursor or sort field that cannot be used for keyset paging.
+ * Mapped to 400.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
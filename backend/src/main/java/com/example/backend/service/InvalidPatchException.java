@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Thrown for a patch that would clear a required field (title, completed).
+ * Mapped to 400.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
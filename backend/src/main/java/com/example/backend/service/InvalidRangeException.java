@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Thrown for a date range that is reversed or longer than allowed.
+ * Mapped to 400.
+ */
+public class InvalidRangeException extends RuntimeException {
+
+    public InvalidRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Thrown for a sort field or direction outside the supported, indexed set.
+ * Mapped to 400.
+ */
+public class InvalidSortException extends RuntimeException {
+
+    public InvalidSortException(String message) {
+        super(message);
+    }
+}
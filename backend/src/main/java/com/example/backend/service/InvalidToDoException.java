@@ -0,0 +1,13 @@
+package com.example.backend.service;
+
+/**
+ * Thrown for a todo that fails the checks of the batch endpoints on create
+ * or replace (missing or too long title, null completed on PUT).
+ * Mapped to 400.
+ */
+public class InvalidToDoException extends RuntimeException {
+
+    public InvalidToDoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.DbSecret;
+import com.example.backend.model.JwtSecret;
+
+/**
+ * Reads the secrets from environment variables or the .env file (see
+ * .env.example), for local and test runs without AWS access.
+ */
+@Service
+@ConditionalOnProperty(name = "app.secrets.provider", havingValue = "local")
+public class LocalSecretsProvider implements SecretsProvider {
+
+    private final DbSecret dbSecret = new DbSecret();
+    private final JwtSecret jwtSecret = new JwtSecret();
+
+    public LocalSecretsProvider(@Value("${DB_URL}") String url,
+                                @Value("${DB_USERNAME}") String username,
+                                @Value("${DB_PASSWORD}") String password,
+                                @Value("${JWT_SECRET_KEY}") String jwtSecretKey) {
+        dbSecret.setJdbcUrl(url);
+        dbSecret.setUsername(username);
+        dbSecret.setPassword(password);
+        jwtSecret.setJwtSecret(jwtSecretKey);
+    }
+
+    @Override
+    public DbSecret getDbSecret() {
+        return dbSecret;
+    }
+
+    @Override
+    public JwtSecret getJwtSecret() {
+        return jwtSecret;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory login throttle with one token bucket per username and one per
+ * client IP. Buckets are lock-free, bounded in number and dropped once idle,
+ * so an attack on many keys cannot grow memory without limit.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private static final long MAX_KEYS = 100_000;
+
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier nanoClock;
+    private final int userCapacity;
+    private final int ipCapacity;
+    private final Duration refillPeriod;
+    private final Counter throttledByUser;
+    private final Counter throttledByIp;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${app.auth.login-limit.user-capacity:5}") int userCapacity,
+                            @Value("${app.auth.login-limit.ip-capacity:20}") int ipCapacity,
+                            @Value("${app.auth.login-limit.refill-period:1m}") Duration refillPeriod) {
+        this(meterRegistry, userCapacity, ipCapacity, refillPeriod, System::nanoTime);
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, int userCapacity, int ipCapacity,
+                     Duration refillPeriod, LongSupplier nanoClock) {
+        this.userCapacity = userCapacity;
+        this.ipCapacity = ipCapacity;
+        this.refillPeriod = refillPeriod;
+        this.nanoClock = nanoClock;
+        // A bucket idle for a full refill period is full again, so it can be dropped
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAX_KEYS)
+                .expireAfterAccess(refillPeriod)
+                .build();
+
+        this.throttledByUser = Counter.builder("auth.login.throttled")
+                .tag("key", "username")
+                .description("Login attempts rejected by the rate limiter")
+                .register(meterRegistry);
+        this.throttledByIp = Counter.builder("auth.login.throttled")
+                .tag("key", "ip")
+                .description("Login attempts rejected by the rate limiter")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.limiter.keys", buckets, Cache::estimatedSize)
+                .description("Tracked login limiter keys")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one attempt from both the IP and the username budget.
+     *
+     * @throws LoginThrottledException if either budget is exhausted
+     */
+    public void acquire(String username, String clientIp) {
+        long now = nanoClock.getAsLong();
+
+        long ipWait = bucket("ip:" + clientIp, ipCapacity).tryConsume(now);
+        if (ipWait > 0) {
+            throttledByIp.increment();
+            throw new LoginThrottledException(toRetryAfterSeconds(ipWait));
+        }
+
+        // Case-insensitive, so varying the case does not buy extra attempts
+        String userKey = "user:" + (username == null ? "" : username.toLowerCase(Locale.ROOT));
+        long userWait = bucket(userKey, userCapacity).tryConsume(now);
+        if (userWait > 0) {
+            throttledByUser.increment();
+            throw new LoginThrottledException(toRetryAfterSeconds(userWait));
+        }
+    }
+
+    private TokenBucket bucket(String key, int capacity) {
+        return buckets.get(key, k -> new TokenBucket(capacity, refillPeriod.toNanos() / capacity, nanoClock.getAsLong()));
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Token bucket with integer tokens refilled one per {@code nanosPerToken}.
+     * State is swapped with CAS, so concurrent attempts never block each other.
+     */
+    static final class TokenBucket {
+
+        private final int capacity;
+        private final long nanosPerToken;
+        private final AtomicReference<State> state;
+
+        TokenBucket(int capacity, long nanosPerToken, long now) {
+            this.capacity = capacity;
+            this.nanosPerToken = nanosPerToken;
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until the next token
+         */
+        long tryConsume(long now) {
+            while (true) {
+                State current = state.get();
+                long refilled = (now - current.lastRefill) / nanosPerToken;
+                long tokens = Math.min(capacity, current.tokens + refilled);
+                long lastRefill = tokens == capacity ? now : current.lastRefill + refilled * nanosPerToken;
+
+                if (tokens == 0) {
+                    return Math.max(1, lastRefill + nanosPerToken - now);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, lastRefill))) {
+                    return 0;
+                }
+            }
+        }
+
+        private record State(long tokens, long lastRefill) {}
+    }
+}
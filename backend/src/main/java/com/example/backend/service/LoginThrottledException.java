@@ -0,0 +1,19 @@
+package com.example.backend.service;
+
+/**
+ * Thrown when a login attempt exceeds the per-username or per-IP budget.
+ * Mapped to 429 before any password verification runs.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Zu viele Anmeldeversuche");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
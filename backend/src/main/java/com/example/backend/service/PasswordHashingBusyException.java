@@ -0,0 +1,18 @@
+package com.example.backend.service;
+
+/**
+ * Thrown when the password hashing pool is saturated. Mapped to 503 so clients
+ * back off instead of queueing more BCrypt work.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    public PasswordHashingBusyException(Throwable cause) {
+        super("Password hashing capacity exhausted", cause);
+    }
+
+    public long getRetryAfterSeconds() {
+        return RETRY_AFTER_SECONDS;
+    }
+}
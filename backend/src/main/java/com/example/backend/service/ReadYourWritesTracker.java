@@ -0,0 +1,128 @@
+package com.example.backend.service;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.backend.model.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Remembers which users changed data recently. Their read-only work stays on
+ * the primary for a short window so they never see a replica that lags behind
+ * their own write.
+ * <p>
+ * The window is also handed to the client as a cookie, so the next request
+ * keeps reading from the primary even when the load balancer sends it to
+ * another instance. A forged cookie only moves that client's own reads to the
+ * primary.
+ */
+@Service
+public class ReadYourWritesTracker {
+
+    static final String COOKIE = "last_write";
+
+    private static final long MAX_TRACKED_USERS = 100_000;
+    private static final String COOKIE_SET = ReadYourWritesTracker.class.getName() + ".cookieSet";
+
+    private final Cache<Long, Boolean> recentWriters;
+    private final Duration window;
+    private final Clock clock;
+
+    @Autowired
+    public ReadYourWritesTracker(@Value("${app.datasource.read-your-writes-window:5s}") Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    ReadYourWritesTracker(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_USERS)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /** Starts (or extends) the window for the user of the current request. */
+    public void recordWrite() {
+        Long userId = currentUserId();
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+            sendCookie();
+        }
+    }
+
+    public boolean mustReadFromPrimary() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        return recentWriters.getIfPresent(userId) != null || cookieWindowOpen();
+    }
+
+    private void sendCookie() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        HttpServletResponse response = attributes.getResponse();
+        // Ein Cookie pro Anfrage reicht, auch wenn z.B. ein Import viele Einträge schreibt
+        if (response == null || response.isCommitted() || request.getAttribute(COOKIE_SET) != null) {
+            return;
+        }
+        request.setAttribute(COOKIE_SET, Boolean.TRUE);
+
+        long until = clock.millis() + window.toMillis();
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(until))
+                .httpOnly(true)
+                .path("/")
+                .maxAge(window)
+                .sameSite("None")
+                .secure(true)
+                .domain(".test-app.info")
+                .build()
+                .toString());
+    }
+
+    private boolean cookieWindowOpen() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        Cookie[] cookies = attributes.getRequest().getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > clock.millis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.model.AuthenticatedUser;
+import com.example.backend.model.RefreshToken;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.repository.UserRepository;
+
+/**
+ * Issues and rotates opaque refresh tokens. Exchanging one costs a single
+ * indexed lookup instead of a BCrypt login.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               @Value("${app.auth.refresh-token-ttl:30d}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * @return the raw token for the client, only its hash is stored
+     */
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUser(userRepository.getReferenceById(userId));
+        token.setTokenHash(hash(rawToken));
+        token.setExpiresAt(Instant.now().plus(ttl));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    /**
+     * Redeems a token exactly once. The row is deleted, so a replayed or
+     * concurrently used token finds nothing.
+     */
+    @Transactional
+    public Optional<AuthenticatedUser> consume(String rawToken) {
+        String tokenHash = hash(rawToken);
+        return refreshTokenRepository.findByTokenHash(tokenHash)
+                .filter(token -> token.getExpiresAt().isAfter(Instant.now()))
+                .filter(token -> refreshTokenRepository.deleteByTokenHash(tokenHash) == 1)
+                .map(token -> new AuthenticatedUser(token.getUser().getId(), token.getUser().getUsername(), null));
+    }
+
+    public void revoke(String rawToken) {
+        refreshTokenRepository.deleteByTokenHash(hash(rawToken));
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh-token-purge-interval:PT1H}")
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
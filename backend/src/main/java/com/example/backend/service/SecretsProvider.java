@@ -0,0 +1,24 @@
+package com.example.backend.service;
+
+import java.util.function.Consumer;
+
+import com.example.backend.model.DbSecret;
+import com.example.backend.model.JwtSecret;
+
+/**
+ * Source of the database and JWT secrets. Selected with app.secrets.provider:
+ * "aws" (default) reads Secrets Manager, "local" reads the environment / .env.
+ */
+public interface SecretsProvider {
+
+    DbSecret getDbSecret();
+
+    JwtSecret getJwtSecret();
+
+    /**
+     * Registers a callback for rotated database credentials. Providers whose
+     * secrets never change can ignore it.
+     */
+    default void onDbSecretChange(Consumer<DbSecret> listener) {
+    }
+}
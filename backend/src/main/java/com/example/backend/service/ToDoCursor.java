@@ -0,0 +1,54 @@
+package com.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.backend.dto.ToDoResponse;
+
+/**
+ * Position after the last row of a page: sort key, direction, the row's sort
+ * value and its id as tiebreaker. Sent to clients as an opaque base64url token.
+ */
+record ToDoCursor(ToDoSortKey key, Sort.Direction direction, Long id, String value) {
+
+    private static final String NULL_VALUE = "-";
+    private static final String VALUE_PREFIX = "=";
+
+    static ToDoCursor after(ToDoResponse last, ToDoSortKey key, Sort.Direction direction) {
+        Comparable<?> value = key.valueOf(last);
+        return new ToDoCursor(key, direction, last.getId(), value == null ? null : value.toString());
+    }
+
+    Comparable<?> typedValue() {
+        return value == null ? null : key.parse(value);
+    }
+
+    String encode() {
+        String raw = key.name() + "|" + direction.name() + "|" + id + "|"
+                + (value == null ? NULL_VALUE : VALUE_PREFIX + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ToDoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+
+            ToDoSortKey key = ToDoSortKey.valueOf(parts[0]);
+            String value = parts[3].equals(NULL_VALUE) ? null : parts[3].substring(VALUE_PREFIX.length());
+            ToDoCursor cursor = new ToDoCursor(key, Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), value);
+            // Früh scheitern statt mit einem kaputten Wert in die Query zu gehen
+            cursor.typedValue();
+            return cursor;
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.model.ToDo;
+import com.example.backend.repository.ToDoRepository;
+import com.example.backend.utils.Csv;
+
+import jakarta.persistence.EntityManager;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * Writes all todos of a user to a stream. Rows come from a database cursor
+ * and go straight to the output, so memory does not grow with the number of
+ * todos.
+ */
+@Service
+public class ToDoExportService {
+
+    // Gleich der Fetch-Size: pro geholtem Block wird der Persistence Context einmal geleert
+    static final int CLEAR_INTERVAL = ToDoRepository.EXPORT_FETCH_SIZE;
+
+    static final String CSV_HEADER = String.join(String.valueOf(Csv.SEPARATOR),
+            "id", "title", "description", "completed", "dueDate", "createdAt", "updatedAt");
+
+    private final ToDoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+
+    public ToDoExportService(ToDoRepository todoRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+        this.jsonWriter = objectMapper.writerFor(ToDoResponse.class);
+    }
+
+    /**
+     * Writes the user's todos in id order and returns how many were written.
+     * The output stream is flushed but not closed. The transaction, and with
+     * it the connection, stays open until the last row is written.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, ToDoFileFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ToDoFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write(Csv.LINE_END);
+        }
+
+        long written = 0;
+        try (Stream<ToDo> rows = todoRepository.streamByUserId(userId)) {
+            for (Iterator<ToDo> it = rows.iterator(); it.hasNext(); ) {
+                ToDoResponse todo = ToDoResponse.from(it.next());
+                if (format == ToDoFileFormat.CSV) {
+                    writeCsv(writer, todo);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(todo));
+                    writer.write('\n');
+                }
+                // Geladene Entities freigeben, sonst wächst der Persistence Context mit jeder Zeile
+                if (++written % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    private static void writeCsv(Writer writer, ToDoResponse todo) throws IOException {
+        Object[] fields = {todo.getId(), todo.getTitle(), todo.getDescription(), todo.getCompleted(),
+                todo.getDueDate(), todo.getCreatedAt(), todo.getUpdatedAt()};
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(Csv.SEPARATOR);
+            }
+            writer.write(Csv.field(fields[i]));
+        }
+        writer.write(Csv.LINE_END);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.backend.service;
+
+/**
+ * File formats for exporting and importing todos: one JSON object per line,
+ * or CSV with a header row.
+ */
+public enum ToDoFileFormat {
+
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    ToDoFileFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ToDoFileFormat fromParameter(String value) {
+        for (ToDoFileFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new UnsupportedFormatException("Unsupported format: " + value);
+    }
+}
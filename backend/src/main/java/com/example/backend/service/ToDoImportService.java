@@ -0,0 +1,269 @@
+package com.example.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.BatchItemResult;
+import com.example.backend.dto.ImportResponse;
+import com.example.backend.dto.ImportRowError;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.model.ToDo;
+import com.example.backend.model.User;
+import com.example.backend.utils.Csv;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.StreamReadConstraints;
+import tools.jackson.core.json.JsonFactory;
+
+/**
+ * Imports todos from NDJSON (or a single JSON array) or CSV. The input is
+ * parsed row by row and written in chunks through
+ * {@link ToDoService#createToDos}, one transaction and one JDBC batch per
+ * chunk. At most one chunk and the first errors are held in memory.
+ */
+@Service
+public class ToDoImportService {
+
+    static final int CHUNK_SIZE = ToDoService.MAX_BATCH_SIZE;
+    static final int MAX_REPORTED_ERRORS = 100;
+    static final int MAX_FIELD_LENGTH = 1_000_000;
+    static final int MAX_JSON_NESTING_DEPTH = 32;
+    static final int MAX_CSV_FIELDS = 64;
+    // So viel wie eine JSON-Zeile mit ihren vier Feldern belegen darf
+    static final int MAX_CSV_RECORD_LENGTH = 4 * MAX_FIELD_LENGTH;
+
+    private static final Set<String> IMPORTED_FIELDS = Set.of("title", "description", "completed", "dueDate");
+
+    // Eigene Grenzen für den Upload: ein einzelner String darf nicht mehr als ein CSV-Feld belegen.
+    // Keine maxDocumentLength, die würde bei NDJSON den ganzen Strom begrenzen statt einer Zeile
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .streamReadConstraints(StreamReadConstraints.builder()
+                    .maxStringLength(MAX_FIELD_LENGTH)
+                    .maxNestingDepth(MAX_JSON_NESTING_DEPTH)
+                    .build())
+            .build();
+
+    private final ToDoService todoService;
+
+    public ToDoImportService(ToDoService todoService) {
+        this.todoService = todoService;
+    }
+
+    // Bewusst ohne @Transactional: jeder Block committet für sich, keine Transaktion wartet auf den Upload
+    public ImportResponse importToDos(User user, ToDoFileFormat format, InputStream in) {
+        ImportRun run = new ImportRun(user);
+        try {
+            if (format == ToDoFileFormat.CSV) {
+                readCsv(in, run);
+            } else {
+                readJson(in, run);
+            }
+        } catch (JacksonException e) {
+            run.abort(run.rows + 1, "Unreadable input: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            run.abort(run.rows + 1, "Unreadable input: " + e.getMessage());
+        }
+        // Auch nach einem Abbruch: die gültigen Zeilen vor der kaputten Stelle werden übernommen
+        run.flush();
+        return run.toResponse();
+    }
+
+    private void readJson(InputStream in, ImportRun run) {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            JsonToken token = parser.nextToken();
+            // NDJSON ist eine Folge von Root-Werten, ein Array wird genauso Element für Element gelesen
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (token == JsonToken.START_OBJECT) {
+                    readJsonRow(parser, run);
+                } else {
+                    parser.skipChildren();
+                    run.skip("row must be a JSON object");
+                }
+                token = parser.nextToken();
+            }
+        }
+    }
+
+    /**
+     * Reads one object token by token. Only the importable fields are kept,
+     * everything else is skipped without being built, so a row holds at most
+     * four strings of bounded length.
+     */
+    private static void readJsonRow(JsonParser parser, ImportRun run) {
+        Map<String, String> values = new HashMap<>();
+        String error = null;
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!IMPORTED_FIELDS.contains(name)) {
+                parser.skipChildren();
+            } else if (value.isStructStart()) {
+                parser.skipChildren();
+                error = name + " must not be an object or array";
+            } else if (value != JsonToken.VALUE_NULL) {
+                values.put(name, parser.getString());
+            }
+        }
+        if (error != null) {
+            run.skip(error);
+        } else {
+            run.add(values::get);
+        }
+    }
+
+    private void readCsv(InputStream in, ImportRun run) throws IOException {
+        Csv.RecordReader reader = new Csv.RecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)),
+                MAX_FIELD_LENGTH, MAX_CSV_FIELDS, MAX_CSV_RECORD_LENGTH);
+        List<String> header = reader.next();
+        if (header == null) {
+            return;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Excel schreibt UTF-8 mit BOM vor die erste Spalte
+            String name = i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i);
+            columns.put(name.trim(), i);
+        }
+        if (!columns.containsKey("title")) {
+            run.abort(0, "CSV header must contain a title column");
+            return;
+        }
+
+        for (List<String> record = reader.next(); record != null; record = reader.next()) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            List<String> fields = record;
+            run.add(name -> {
+                Integer index = columns.get(name);
+                return index == null || index >= fields.size() || fields.get(index).isEmpty() ? null : fields.get(index);
+            });
+        }
+    }
+
+    /** Maps the importable fields; id, timestamps and version are always assigned anew. */
+    private static ToDo toToDo(Function<String, String> field) {
+        ToDo todo = new ToDo();
+        todo.setTitle(field.apply("title"));
+        todo.setDescription(field.apply("description"));
+        todo.setCompleted(parseCompleted(field.apply("completed")));
+        todo.setDueDate(parseDueDate(field.apply("dueDate")));
+        return todo;
+    }
+
+    private static Boolean parseCompleted(String value) {
+        if (value == null || "false".equalsIgnoreCase(value)) {
+            return false;
+        }
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        throw new IllegalArgumentException("completed must be true or false");
+    }
+
+    private static LocalDateTime parseDueDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(value).atStartOfDay();
+            } catch (DateTimeParseException notADate) {
+                throw new IllegalArgumentException("dueDate must be an ISO date or date-time");
+            }
+        }
+    }
+
+    /** State of one import: the pending chunk, counters and the reported errors. */
+    private final class ImportRun {
+
+        private final User user;
+        private final List<ToDo> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final long[] chunkRows = new long[CHUNK_SIZE];
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+        private boolean completed = true;
+
+        ImportRun(User user) {
+            this.user = user;
+        }
+
+        void add(Function<String, String> field) {
+            long row = ++rows;
+            ToDo todo;
+            try {
+                todo = toToDo(field);
+            } catch (IllegalArgumentException e) {
+                reject(row, e.getMessage());
+                return;
+            }
+            chunkRows[chunk.size()] = row;
+            chunk.add(todo);
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void skip(String error) {
+            reject(++rows, error);
+        }
+
+        void abort(long row, String error) {
+            reject(row, error);
+            completed = false;
+        }
+
+        void reject(long row, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(row, error));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            // Titelprüfung und gebatchte INSERTs übernimmt createToDos, Fehler kommen je Element zurück
+            for (BatchItemResult<ToDoResponse> result : todoService.createToDos(user, chunk).getResults()) {
+                if (result.getError() == null) {
+                    imported++;
+                } else {
+                    reject(chunkRows[result.getIndex()], result.getError());
+                }
+            }
+            chunk.clear();
+        }
+
+        ImportResponse toResponse() {
+            errors.sort(Comparator.comparingLong(ImportRowError::getRow));
+            return new ImportResponse(rows, imported, failed, completed, errors);
+        }
+    }
+}
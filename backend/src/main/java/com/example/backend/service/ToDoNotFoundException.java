@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Thrown when a write affected no row: the id does not exist or belongs to
+ * another user. Both cases map to 404 so foreign ids are not disclosed.
+ */
+public class ToDoNotFoundException extends RuntimeException {
+
+    public ToDoNotFoundException(Long id) {
+        super("ToDo not found with id: " + id);
+    }
+}
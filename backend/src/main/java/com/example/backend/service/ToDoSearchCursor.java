@@ -0,0 +1,38 @@
+package com.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.example.backend.repository.ToDoSearchHit;
+
+/**
+ * Position after the last hit of a search page: its rank and id. The rank is
+ * kept as the exact float Postgres returned, so the seek on the next page
+ * compares equal values as equal.
+ */
+record ToDoSearchCursor(float rank, long id) {
+
+    static ToDoSearchCursor after(ToDoSearchHit last) {
+        return new ToDoSearchCursor(last.rank(), last.todo().getId());
+    }
+
+    String encode() {
+        String raw = Float.toString(rank) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ToDoSearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new ToDoSearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+    }
+}
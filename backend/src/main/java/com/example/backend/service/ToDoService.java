@@ -2,57 +2,522 @@ package com.example.backend.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.example.backend.dto.BatchItemResult;
+import com.example.backend.dto.BatchResponse;
+import com.example.backend.dto.CursorPage;
+import com.example.backend.dto.DayCount;
+import com.example.backend.dto.ToDoPatch;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.dto.ToDoSummary;
 import com.example.backend.model.ToDo;
 import com.example.backend.model.User;
 import com.example.backend.repository.ToDoRepository;
+import com.example.backend.repository.ToDoSearchHit;
+import com.example.backend.repository.UserRepository;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ToDoService {
 
+    static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_TITLE_LENGTH = 255;
+    static final int MAX_SHIFT_DAYS = 3650;
+    static final int MAX_RANGE_DAYS = 366;
+
     private final ToDoRepository todoRepository;
+    private final UserRepository userRepository;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ToDoTitleIndex titleIndex;
 
-    public ToDoService(ToDoRepository todoRepository) {
+    public ToDoService(ToDoRepository todoRepository, UserRepository userRepository,
+                       ReadYourWritesTracker readYourWrites, ToDoTitleIndex titleIndex) {
         this.todoRepository = todoRepository;
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+        this.titleIndex = titleIndex;
     }
 
+    /**
+     * Creates one todo with the same checks as {@link #createToDos}. A
+     * client-supplied id or version is dropped, the row is always new.
+     */
     public ToDo createToDo(ToDo todo) {
-        return todoRepository.save(todo);
+        requireValid(todo, true);
+        todo.setId(null);
+        todo.setVersion(null);
+        if (todo.getCompleted() == null) {
+            todo.setCompleted(false);
+        }
+        readYourWrites.recordWrite();
+        ToDo saved = todoRepository.save(todo);
+        listChanged(todo.getUser().getId());
+        titleIndex.put(todo.getUser().getId(), saved.getId(), saved.getTitle());
+        return saved;
+    }
+
+    /**
+     * Version of the user's todo list, raised by every write in this service.
+     * Lets list requests answer If-None-Match with a primary key lookup.
+     */
+    // Bewusst nicht readOnly: ein nachhinkendes Replikat würde eine alte Version liefern und ein falsches 304 auslösen
+    @Transactional
+    public long getListVersion(Long userId) {
+        return userRepository.findTodosVersionById(userId).orElse(0L);
+    }
+
+    /**
+     * Reads the list version and then, unless {@code current} accepts it, the
+     * list itself. Both run in one read-only transaction and therefore on one
+     * connection: a lagging replica yields an old version with equally old
+     * rows, never a version ahead of the rows it tags.
+     */
+    @Transactional(readOnly = true)
+    public <T> VersionedList<T> readList(Long userId, LongPredicate current, Supplier<T> query) {
+        return VersionedList.read(userRepository.findTodosVersionById(userId).orElse(0L), current, query);
     }
 
-    public Optional<ToDo> getToDo(Long id) {
-        return todoRepository.findById(id);
+    // Lesende Methoden laufen readOnly und damit auf einem Replikat, falls konfiguriert
+    @Transactional(readOnly = true)
+    public Optional<ToDoResponse> getToDo(Long id, Long userId) {
+        return todoRepository.findResponseByIdAndUserId(id, userId);
     }
 
+    @Transactional(readOnly = true)
     public List<ToDo> getToDosForUser(User user) {
         return todoRepository.findByUser(user);
     }
 
-    public Page<ToDo> getToDosForUserPaged(User user, Pageable pageable) {
-        return todoRepository.findByUser(user, pageable);
+    @Transactional(readOnly = true)
+    public Page<ToDoResponse> getToDosForUserPaged(User user, Pageable pageable) {
+        return todoRepository.findResponsesByUser(user, pageable);
+    }
+
+    /**
+     * Keyset page: seeks past the cursor instead of skipping rows, so every page
+     * costs the same. Without a cursor the first page is returned. The total
+     * needs a separate COUNT and is only run when asked for.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ToDoResponse> getToDosForUserAfter(User user, ToDoSortKey key, Sort.Direction direction,
+                                                 String cursor, int size, boolean withCount) {
+        Specification<ToDo> owned = (root, query, cb) -> cb.equal(root.get("user"), user);
+        List<Specification<ToDo>> segments = List.of(owned);
+        if (cursor != null && !cursor.isEmpty()) {
+            // Der Cursor bestimmt die Sortierung, damit Folgeseiten konsistent bleiben
+            ToDoCursor after = ToDoCursor.decode(cursor);
+            key = after.key();
+            direction = after.direction();
+            segments = seekAfter(after).stream().map(owned::and).toList();
+        }
+
+        Sort sort = key.toSort(direction);
+
+        // Eine Zeile mehr laden, um zu wissen, ob es eine nächste Seite gibt
+        List<ToDoResponse> rows = new ArrayList<>();
+        for (Specification<ToDo> segment : segments) {
+            rows.addAll(todoRepository.findResponses(segment, sort, size + 1 - rows.size()));
+            if (rows.size() > size) {
+                break;
+            }
+        }
+        boolean hasNext = rows.size() > size;
+        List<ToDoResponse> content = hasNext ? rows.subList(0, size) : rows;
+
+        String next = hasNext ? ToDoCursor.after(content.get(content.size() - 1), key, direction).encode() : null;
+        Long total = withCount ? todoRepository.countByUser(user) : null;
+        return new CursorPage<>(content, size, next, total);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ToDoResponse> getCompletedToDosForUser(User user, Boolean completed) {
+        return todoRepository.findResponsesByUserAndCompleted(user, completed);
+    }
+
+    /** Todos due between from and to, both days inclusive, ordered by due date. */
+    @Transactional(readOnly = true)
+    public List<ToDoSummary> getToDosDueBetween(Long userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return todoRepository.findSummariesDueBetween(userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    /** Per-day counts for the same window, for views too dense to list every todo. */
+    @Transactional(readOnly = true)
+    public List<DayCount> countToDosDueByDay(Long userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return todoRepository.countDueByDay(userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidRangeException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidRangeException("Range too long, at most " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    /**
+     * Ranked full-text search, keyset-paginated on (rank, id) like the cursor
+     * list. A blank query matches nothing and skips the database.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ToDoResponse> searchToDos(Long userId, String query, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            return new CursorPage<>(List.of(), size, null, null);
+        }
+        ToDoSearchCursor after = cursor == null || cursor.isEmpty() ? null : ToDoSearchCursor.decode(cursor);
+
+        List<ToDoSearchHit> hits = todoRepository.search(userId, query,
+                after != null ? after.rank() : null, after != null ? after.id() : null, size + 1);
+        boolean hasNext = hits.size() > size;
+        List<ToDoSearchHit> page = hasNext ? hits.subList(0, size) : hits;
+
+        String next = hasNext ? ToDoSearchCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(ToDoSearchHit::todo).toList(), size, next, null);
+    }
+
+    /**
+     * Rows strictly after the cursor in (sort key, id) order, as consecutive
+     * segments that are queried in turn until the page is full. Each segment
+     * starts with a bound the (user_id, column, id) index can seek to, so a
+     * deep page costs the same as the first. Postgres puts NULL last for ASC
+     * and first for DESC, so a nullable key gets the NULL block as its own
+     * segment instead of an OR the index cannot use.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static List<Specification<ToDo>> seekAfter(ToDoCursor cursor) {
+        boolean asc = cursor.direction().isAscending();
+        Specification<ToDo> idAfter = (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            return asc ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+        };
+        if (cursor.key() == ToDoSortKey.ID) {
+            return List.of(idAfter);
+        }
+
+        String attribute = cursor.key().getAttribute();
+        Specification<ToDo> isNull = (root, query, cb) -> cb.isNull(root.get(attribute));
+        Comparable value = cursor.typedValue();
+        if (value == null) {
+            // Im NULL-Block: ASC steht er am Ende, DESC folgen danach alle Werte
+            Specification<ToDo> restOfNulls = isNull.and(idAfter);
+            return asc
+                    ? List.of(restOfNulls)
+                    : List.of(restOfNulls, (root, query, cb) -> cb.isNotNull(root.get(attribute)));
+        }
+
+        // col >= v als Index-Grenze, die OR-Bedingung filtert nur noch die Zeilen mit col = v
+        Specification<ToDo> seek = (root, query, cb) -> {
+            Path<Comparable> column = root.get(attribute);
+            Path<Long> id = root.get("id");
+            Predicate bound = asc ? cb.greaterThanOrEqualTo(column, value) : cb.lessThanOrEqualTo(column, value);
+            Predicate beyond = asc ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+            Predicate idBeyond = asc ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+            return cb.and(bound, cb.or(beyond, cb.and(cb.equal(column, value), idBeyond)));
+        };
+        return asc && cursor.key().isNullable() ? List.of(seek, isNull) : List.of(seek);
+    }
+
+    /**
+     * One UPDATE scoped to the owner, no prior SELECT. A missing or foreign id
+     * matches no row and ends in ToDoNotFoundException. With an expected
+     * version (If-Match) a stale version ends in VersionConflictException.
+     */
+    public ToDoResponse updateToDo(Long id, Long userId, Long expectedVersion, ToDo todo) {
+        requireValid(todo, false);
+        readYourWrites.recordWrite();
+        ToDoResponse updated = todoRepository.updateByIdAndUserId(id, userId, expectedVersion, todo)
+            .orElseThrow(() -> notFoundOrConflict(id, userId, expectedVersion));
+        listChanged(userId);
+        titleIndex.put(userId, id, updated.getTitle());
+        return updated;
+    }
+
+    /**
+     * Merge patch: one UPDATE that sets only the supplied columns. An empty
+     * patch changes nothing and just returns the current state.
+     */
+    public ToDoResponse patchToDo(Long id, Long userId, Long expectedVersion, ToDoPatch patch) {
+        String titleError = patch.has(ToDoPatch.Field.TITLE) ? validateTitle(patch.getTitle()) : null;
+        if (titleError != null) {
+            throw new InvalidPatchException(titleError);
+        }
+        if (patch.has(ToDoPatch.Field.COMPLETED) && patch.getCompleted() == null) {
+            throw new InvalidPatchException("completed must not be null");
+        }
+        if (patch.isEmpty()) {
+            ToDoResponse current = todoRepository.findResponseByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ToDoNotFoundException(id));
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new VersionConflictException(id);
+            }
+            return current;
+        }
+
+        readYourWrites.recordWrite();
+        ToDoResponse patched = todoRepository.patchByIdAndUserId(id, userId, expectedVersion, patch)
+            .orElseThrow(() -> notFoundOrConflict(id, userId, expectedVersion));
+        listChanged(userId);
+        if (patch.has(ToDoPatch.Field.TITLE)) {
+            titleIndex.put(userId, id, patched.getTitle());
+        }
+        return patched;
+    }
+
+    public void deleteToDo(Long id, Long userId, Long expectedVersion) {
+        readYourWrites.recordWrite();
+        if (todoRepository.deleteByIdAndUserId(id, userId, expectedVersion) == 0) {
+            throw notFoundOrConflict(id, userId, expectedVersion);
+        }
+        listChanged(userId);
+        titleIndex.remove(userId, List.of(id));
+    }
+
+    // Nur im Fehlerfall: eine zweite Query unterscheidet 404 (fehlt/fremd) von 412 (veraltete Version)
+    private RuntimeException notFoundOrConflict(Long id, Long userId, Long expectedVersion) {
+        if (expectedVersion != null && todoRepository.existsByIdAndUserId(id, userId)) {
+            return new VersionConflictException(id);
+        }
+        return new ToDoNotFoundException(id);
+    }
+
+    // Gleiche Transaktion wie die Änderung, die Zeilensperre auf users serialisiert parallele Schreiber eines Users
+    private void listChanged(Long userId) {
+        userRepository.incrementTodosVersion(userId);
+    }
+
+    /**
+     * Creates all valid items in one transaction. Ids come from todos_seq in
+     * blocks, so the INSERTs go out as JDBC batches on flush. Invalid items
+     * are reported with 400 and skipped.
+     */
+    public BatchResponse<ToDoResponse> createToDos(User user, List<ToDo> items) {
+        checkBatchSize(items.size());
+        readYourWrites.recordWrite();
+
+        List<BatchItemResult<ToDoResponse>> results = new ArrayList<>();
+        List<ToDo> valid = new ArrayList<>();
+        for (ToDo item : items) {
+            String error = validate(item, true);
+            if (error != null) {
+                results.add(BatchItemResult.failure(results.size(), null, 400, error));
+                continue;
+            }
+            item.setId(null);
+            item.setVersion(null);
+            item.setUser(user);
+            if (item.getCompleted() == null) {
+                item.setCompleted(false);
+            }
+            valid.add(item);
+            results.add(null);
+        }
+
+        todoRepository.saveAll(valid);
+        todoRepository.flush();
+        if (!valid.isEmpty()) {
+            listChanged(user.getId());
+            titleIndex.putAll(user.getId(), titlesById(valid));
+        }
+
+        // Platzhalter in Anfragereihenfolge mit den gespeicherten Zeilen füllen
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                ToDo saved = valid.get(next++);
+                results.set(i, BatchItemResult.success(i, saved.getId(), 201, ToDoResponse.from(saved)));
+            }
+        }
+        return new BatchResponse<>(results);
+    }
+
+    /**
+     * Replaces the given todos like PUT, each item carries its id. One SELECT
+     * for all owned rows, the UPDATEs are batched on flush. Missing or foreign
+     * ids are reported with 404.
+     */
+    public BatchResponse<ToDoResponse> updateToDos(Long userId, List<ToDo> items) {
+        checkBatchSize(items.size());
+        readYourWrites.recordWrite();
+
+        Set<Long> ids = items.stream().filter(item -> item != null && item.getId() != null)
+            .map(ToDo::getId).collect(Collectors.toSet());
+        Map<Long, ToDo> owned = todoRepository.findAllByIdInAndUserId(ids, userId).stream()
+            .collect(Collectors.toMap(ToDo::getId, Function.identity()));
+
+        List<BatchItemResult<ToDoResponse>> results = new ArrayList<>();
+        List<ToDo> updated = new ArrayList<>();
+        for (ToDo item : items) {
+            int index = results.size();
+            Long id = item == null ? null : item.getId();
+            String error = item != null && id == null ? "id is required" : validate(item, false);
+            ToDo existing = id == null ? null : owned.get(id);
+            if (error != null) {
+                results.add(BatchItemResult.failure(index, id, 400, error));
+            } else if (existing == null) {
+                results.add(BatchItemResult.failure(index, id, 404, "ToDo not found with id: " + id));
+            } else {
+                existing.setTitle(item.getTitle());
+                existing.setDescription(item.getDescription());
+                existing.setCompleted(item.getCompleted());
+                existing.setDueDate(item.getDueDate());
+                updated.add(existing);
+                results.add(null);
+            }
+        }
+
+        // Flush vor dem Mapping, damit @PreUpdate updatedAt und @Version die neue Version gesetzt haben
+        todoRepository.flush();
+        if (!updated.isEmpty()) {
+            listChanged(userId);
+            titleIndex.putAll(userId, titlesById(updated));
+        }
+
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                ToDo saved = updated.get(next++);
+                results.set(i, BatchItemResult.success(i, saved.getId(), 200, ToDoResponse.from(saved)));
+            }
+        }
+        return new BatchResponse<>(results);
+    }
+
+    /** One DELETE for all ids; ids that were not deleted are reported with 404. */
+    public BatchResponse<ToDoResponse> deleteToDos(Long userId, List<Long> ids) {
+        checkBatchSize(ids.size());
+        readYourWrites.recordWrite();
+
+        Set<Long> deleted = new HashSet<>(todoRepository.deleteAllByIdInAndUserId(new HashSet<>(ids), userId));
+        if (!deleted.isEmpty()) {
+            listChanged(userId);
+            titleIndex.remove(userId, deleted);
+        }
+
+        List<BatchItemResult<ToDoResponse>> results = new ArrayList<>();
+        for (Long id : ids) {
+            results.add(deleted.contains(id)
+                ? BatchItemResult.success(results.size(), id, 204, null)
+                : BatchItemResult.failure(results.size(), id, 404, "ToDo not found with id: " + id));
+        }
+        return new BatchResponse<>(results);
+    }
+
+    /** Multi-get: one projection query for all ids, missing or foreign ones get 404. */
+    @Transactional(readOnly = true)
+    public BatchResponse<ToDoResponse> getToDos(Long userId, List<Long> ids) {
+        checkBatchSize(ids.size());
+
+        Map<Long, ToDoResponse> found = todoRepository.findResponsesByIdInAndUserId(new HashSet<>(ids), userId).stream()
+            .collect(Collectors.toMap(ToDoResponse::getId, Function.identity()));
+
+        List<BatchItemResult<ToDoResponse>> results = new ArrayList<>();
+        for (Long id : ids) {
+            ToDoResponse todo = found.get(id);
+            results.add(todo != null
+                ? BatchItemResult.success(results.size(), id, 200, todo)
+                : BatchItemResult.failure(results.size(), id, 404, "ToDo not found with id: " + id));
+        }
+        return new BatchResponse<>(results);
+    }
+
+    /** Marks every open todo of the user as completed in one UPDATE. */
+    public int completeAll(Long userId) {
+        readYourWrites.recordWrite();
+        return listChangedIfAffected(userId, todoRepository.completeAllByUserId(userId, LocalDateTime.now()));
+    }
+
+    /** Removes every completed todo of the user in one DELETE. */
+    public int deleteCompleted(Long userId) {
+        readYourWrites.recordWrite();
+        int deleted = listChangedIfAffected(userId, todoRepository.deleteCompletedByUserId(userId));
+        if (deleted > 0) {
+            // Die gelöschten IDs sind nicht bekannt, der Index wird beim nächsten Aufruf neu geladen
+            titleIndex.invalidate(userId);
+        }
+        return deleted;
+    }
+
+    /**
+     * Moves the due date of every open todo that is past due by the given
+     * number of days (negative moves it earlier), in one UPDATE.
+     */
+    public int shiftOverdue(Long userId, int days) {
+        if (days == 0 || Math.abs(days) > MAX_SHIFT_DAYS) {
+            throw new InvalidBulkActionException("days must be between -" + MAX_SHIFT_DAYS + " and " + MAX_SHIFT_DAYS + " and not 0");
+        }
+        readYourWrites.recordWrite();
+        return listChangedIfAffected(userId, todoRepository.shiftOverdueByUserId(userId, days, LocalDateTime.now()));
+    }
+
+    private int listChangedIfAffected(Long userId, int affected) {
+        if (affected > 0) {
+            listChanged(userId);
+        }
+        return affected;
+    }
+
+    private static Map<Long, String> titlesById(List<ToDo> todos) {
+        return todos.stream().collect(Collectors.toMap(ToDo::getId, ToDo::getTitle));
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size == 0) {
+            throw new InvalidBatchException("Batch must not be empty");
+        }
+        if (size > MAX_BATCH_SIZE) {
+            throw new InvalidBatchException("Batch too large, at most " + MAX_BATCH_SIZE + " items");
+        }
     }
 
-    public List<ToDo> getCompletedToDosForUser(User user, Boolean completed) {
-        return todoRepository.findByUserAndCompleted(user, completed);
+    // Vorab prüfen statt die DB-Constraints greifen zu lassen, die würden die ganze Transaktion abbrechen
+    private static String validate(ToDo item, boolean creating) {
+        if (item == null) {
+            return "item must not be null";
+        }
+        String titleError = validateTitle(item.getTitle());
+        if (titleError != null) {
+            return titleError;
+        }
+        if (!creating && item.getCompleted() == null) {
+            return "completed must not be null";
+        }
+        return null;
     }
 
-    public ToDo updateToDo(Long id, ToDo todo) {
-        return todoRepository.findById(id)
-            .map(existing -> {
-                existing.setTitle(todo.getTitle());
-                existing.setDescription(todo.getDescription());
-                existing.setCompleted(todo.getCompleted());
-                existing.setDueDate(todo.getDueDate());
-                return todoRepository.save(existing);
-            })
-            .orElseThrow(() -> new RuntimeException("ToDo not found with id: " + id));
+    private static void requireValid(ToDo item, boolean creating) {
+        String error = validate(item, creating);
+        if (error != null) {
+            throw new InvalidToDoException(error);
+        }
     }
 
-    public void deleteToDo(Long id) {
-        todoRepository.deleteById(id);
+    private static String validateTitle(String title) {
+        if (title == null || title.isBlank()) {
+            return "title must not be empty";
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            return "title must be at most " + MAX_TITLE_LENGTH + " characters";
+        }
+        return null;
     }
 }
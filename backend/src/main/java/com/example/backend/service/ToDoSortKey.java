@@ -0,0 +1,76 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.backend.dto.ToDoResponse;
+
+/**
+ * The only orders the todo list supports. Each one is backed by a
+ * (user_id, column, id) index from changeset 0006, so sorting never needs a
+ * full sort of the user's rows. Each key also knows how to read its value
+ * from a row and parse it back out of a cursor.
+ */
+public enum ToDoSortKey {
+
+    ID("id", false, ToDoResponse::getId, Long::valueOf),
+    COMPLETED("completed", false, ToDoResponse::getCompleted, Boolean::valueOf),
+    DUE_DATE("dueDate", true, ToDoResponse::getDueDate, LocalDateTime::parse),
+    CREATED_AT("createdAt", false, ToDoResponse::getCreatedAt, LocalDateTime::parse);
+
+    private final String attribute;
+    private final boolean nullable;
+    private final Function<ToDoResponse, ? extends Comparable<?>> extractor;
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    ToDoSortKey(String attribute, boolean nullable, Function<ToDoResponse, ? extends Comparable<?>> extractor, Function<String, ? extends Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.nullable = nullable;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /** Sort on this key with id as tiebreaker, matching the index column order. */
+    public Sort toSort(Sort.Direction direction) {
+        return this == ID
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, attribute).and(Sort.by(direction, "id"));
+    }
+
+    Comparable<?> valueOf(ToDoResponse todo) {
+        return extractor.apply(todo);
+    }
+
+    Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    public static ToDoSortKey fromAttribute(String attribute) {
+        for (ToDoSortKey key : values()) {
+            if (key.attribute.equals(attribute)) {
+                return key;
+            }
+        }
+        throw new InvalidSortException("Unsupported sort field: " + attribute);
+    }
+
+    public static Sort.Direction parseDirection(String direction) {
+        if ("ASC".equalsIgnoreCase(direction)) {
+            return Sort.Direction.ASC;
+        }
+        if ("DESC".equalsIgnoreCase(direction)) {
+            return Sort.Direction.DESC;
+        }
+        throw new InvalidSortException("Unsupported sort direction: " + direction);
+    }
+}
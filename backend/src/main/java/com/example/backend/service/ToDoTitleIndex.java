@@ -0,0 +1,354 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.dto.TitleSuggestion;
+import com.example.backend.repository.ToDoRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-memory prefix index over todo titles for search-as-you-type. Each user
+ * gets a sorted array of the lowercased title suffixes that start at a word,
+ * so a prefix is one binary search plus a short scan. A user's index is
+ * loaded on first use and then kept current by {@link ToDoService}; the
+ * number of indexed users is bounded, the least recently used are dropped.
+ * Writes on other instances are not seen here, so an index is reloaded once
+ * it is older than the configured ttl.
+ */
+@Service
+public class ToDoTitleIndex {
+
+    static final int MAX_LIMIT = 20;
+
+    // Längere Präfixe werden über den ganzen Titel nachgeprüft, das hält die Schlüssel klein
+    static final int KEY_LENGTH = 32;
+
+    private final ToDoRepository todoRepository;
+    private final AsyncCache<Long, UserTitles> indexes;
+
+    @Autowired
+    public ToDoTitleIndex(ToDoRepository todoRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.autocomplete.max-users:10000}") long maxUsers,
+                          @Value("${app.autocomplete.ttl:10m}") Duration ttl) {
+        this(todoRepository, meterRegistry, maxUsers, ttl, Ticker.systemTicker());
+    }
+
+    ToDoTitleIndex(ToDoRepository todoRepository, MeterRegistry meterRegistry, long maxUsers,
+                   Duration ttl, Ticker ticker) {
+        this.todoRepository = todoRepository;
+        // Ablauf ab dem Laden: lokale Änderungen verlängern die Lebensdauer nicht, sonst bliebe ein
+        // aktiv genutzter Index für Schreibzugriffe anderer Instanzen dauerhaft blind
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfter(Expiry.<Long, UserTitles>creating((userId, index) -> ttl))
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "todoTitleIndex");
+        Gauge.builder("todos.autocomplete.memory", this, ToDoTitleIndex::estimatedBytes)
+                .baseUnit("bytes")
+                .description("Estimated heap used by the title autocomplete index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Titles with a word starting with the prefix, case-insensitive and in
+     * alphabetical order of the matching word. Loads the user's index on first
+     * use; a blank prefix matches nothing.
+     */
+    public List<TitleSuggestion> suggest(Long userId, String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int max = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        return index(userId).suggest(normalize(prefix.strip()), max);
+    }
+
+    // Der Cache hält nur den Future, das SELECT läuft danach im aufrufenden Thread und damit
+    // außerhalb der Sperre der Map. Weitere Anfragen desselben Users warten auf diesen Future
+    private UserTitles index(Long userId) {
+        CompletableFuture<UserTitles> created = new CompletableFuture<>();
+        CompletableFuture<UserTitles> index = indexes.get(userId, (key, executor) -> created);
+        if (index == created) {
+            try {
+                created.complete(load(userId));
+            } catch (RuntimeException e) {
+                // Fehlgeschlagene Futures entfernt Caffeine, der nächste Aufruf lädt neu
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return index.join();
+    }
+
+    /** Adds the todo or replaces its title once the current transaction commits. */
+    public void put(Long userId, Long id, String title) {
+        putAll(userId, Collections.singletonMap(id, title));
+    }
+
+    public void putAll(Long userId, Map<Long, String> titles) {
+        if (!titles.isEmpty()) {
+            afterCommit(() -> update(userId, index -> titles.forEach(index::put)));
+        }
+    }
+
+    public void remove(Long userId, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            afterCommit(() -> update(userId, index -> ids.forEach(index::remove)));
+        }
+    }
+
+    /** Drops the user's index, it is rebuilt on the next suggest. */
+    public void invalidate(Long userId) {
+        afterCommit(() -> indexes.synchronous().invalidate(userId));
+    }
+
+    long estimatedBytes() {
+        return indexes.asMap().values().stream()
+                .map(index -> index.getNow(null))
+                .filter(Objects::nonNull)
+                .mapToLong(UserTitles::estimatedBytes)
+                .sum();
+    }
+
+    private UserTitles load(Long userId) {
+        return UserTitles.of(todoRepository.findTitlesByUserId(userId));
+    }
+
+    // Nur vorhandene Indizes pflegen. Läuft das Laden noch, wird die Änderung an dessen Future gehängt
+    // und nach dem SELECT angewendet, so geht keine Änderung verloren, die währenddessen committet wurde
+    private void update(Long userId, Consumer<UserTitles> change) {
+        indexes.asMap().computeIfPresent(userId, (key, index) -> index.thenApply(titles -> {
+            change.accept(titles);
+            return titles;
+        }));
+    }
+
+    // Erst nach dem Commit, damit ein Rollback keine Titel im Index hinterlässt
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /** Offsets in the normalized title where a word starts. */
+    static List<Integer> wordStarts(String normalized) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1)))) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * One user's titles. keys and ids are parallel arrays sorted by (key, id),
+     * with one entry per word of a title; the full titles are kept once per
+     * todo. Writes shift the arrays, which stays cheap at the size of a
+     * single user's list.
+     */
+    static final class UserTitles {
+
+        // Grobe Heap-Schätzung: String-Objekt und Array-Header je Schlüssel, HashMap-Eintrag je Titel
+        private static final int ENTRY_OVERHEAD = 56;
+        private static final int TITLE_OVERHEAD = 88;
+
+        private String[] keys;
+        private long[] ids;
+        private int size;
+        private final Map<Long, String> titles = new HashMap<>();
+        private long bytes;
+
+        private UserTitles(int capacity) {
+            keys = new String[Math.max(capacity, 16)];
+            ids = new long[keys.length];
+        }
+
+        static UserTitles of(List<TitleSuggestion> rows) {
+            // Einmal sortieren statt jede Zeile einzeln einzufügen
+            record Entry(String key, long id) {}
+            List<Entry> entries = new ArrayList<>();
+            UserTitles index = new UserTitles(0);
+            for (TitleSuggestion row : rows) {
+                if (row.getTitle() == null) {
+                    continue;
+                }
+                index.titles.put(row.getId(), row.getTitle());
+                index.bytes += TITLE_OVERHEAD + row.getTitle().length();
+                for (String key : keysOf(row.getTitle())) {
+                    entries.add(new Entry(key, row.getId()));
+                }
+            }
+            entries.sort(Comparator.comparing(Entry::key).thenComparingLong(Entry::id));
+
+            index.keys = new String[Math.max(entries.size(), 16)];
+            index.ids = new long[index.keys.length];
+            for (Entry entry : entries) {
+                if (index.size > 0 && index.ids[index.size - 1] == entry.id() && index.keys[index.size - 1].equals(entry.key())) {
+                    continue;
+                }
+                index.keys[index.size] = entry.key();
+                index.ids[index.size] = entry.id();
+                index.size++;
+                index.bytes += ENTRY_OVERHEAD + entry.key().length();
+            }
+            return index;
+        }
+
+        synchronized void put(Long id, String title) {
+            remove(id);
+            if (title == null) {
+                return;
+            }
+            titles.put(id, title);
+            bytes += TITLE_OVERHEAD + title.length();
+            for (String key : keysOf(title)) {
+                insert(key, id);
+            }
+        }
+
+        synchronized void remove(Long id) {
+            String title = titles.remove(id);
+            if (title == null) {
+                return;
+            }
+            bytes -= TITLE_OVERHEAD + title.length();
+            for (String key : keysOf(title)) {
+                delete(key, id);
+            }
+        }
+
+        synchronized List<TitleSuggestion> suggest(String prefix, int limit) {
+            boolean truncated = prefix.length() > KEY_LENGTH;
+            String probe = truncated ? prefix.substring(0, KEY_LENGTH) : prefix;
+
+            int from = find(probe, Long.MIN_VALUE);
+            Set<Long> seen = new HashSet<>();
+            List<TitleSuggestion> result = new ArrayList<>();
+            for (int i = from < 0 ? -from - 1 : from; i < size && result.size() < limit && keys[i].startsWith(probe); i++) {
+                long id = ids[i];
+                String title = titles.get(id);
+                if (seen.contains(id) || (truncated && !matchesWord(normalize(title), prefix))) {
+                    continue;
+                }
+                seen.add(id);
+                result.add(new TitleSuggestion(id, title));
+            }
+            return result;
+        }
+
+        synchronized long estimatedBytes() {
+            return bytes;
+        }
+
+        private void insert(String key, long id) {
+            int pos = find(key, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            keys[pos] = key;
+            ids[pos] = id;
+            size++;
+            bytes += ENTRY_OVERHEAD + key.length();
+        }
+
+        private void delete(String key, long id) {
+            int pos = find(key, id);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            keys[size] = null;
+            bytes -= ENTRY_OVERHEAD + key.length();
+        }
+
+        // Binärsuche nach (key, id); wie Arrays.binarySearch -(Einfügepunkt) - 1, wenn nicht vorhanden
+        private int find(String key, long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = keys[mid].compareTo(key);
+                if (cmp == 0) {
+                    cmp = Long.compare(ids[mid], id);
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private static List<String> keysOf(String title) {
+            String normalized = normalize(title);
+            List<String> keys = new ArrayList<>();
+            for (int start : wordStarts(normalized)) {
+                keys.add(normalized.substring(start, Math.min(start + KEY_LENGTH, normalized.length())));
+            }
+            return keys;
+        }
+
+        private static boolean matchesWord(String normalizedTitle, String prefix) {
+            for (int start : wordStarts(normalizedTitle)) {
+                if (normalizedTitle.startsWith(prefix, start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.RevokedToken;
+import com.example.backend.repository.RevokedTokenRepository;
+import com.example.backend.utils.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deny list of revoked token ids, checked on every authenticated request.
+ * A Bloom filter answers the common "not revoked" case without touching the
+ * exact set; the table keeps revocations across restarts and instances.
+ * Entries are dropped once the token would have expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    // Serialisiert lokale Einträge mit dem Austausch des Snapshots, isRevoked bleibt ohne Sperre
+    private final Object snapshotLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(new ConcurrentHashMap<>(), new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE));
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    public boolean isRevoked(String jti) {
+        Snapshot current = snapshot;
+        if (!current.filter.mightContain(jti)) {
+            return false;
+        }
+        Instant expiresAt = current.revoked.get(jti);
+        return expiresAt != null && Instant.now().isBefore(expiresAt);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        synchronized (snapshotLock) {
+            Snapshot current = snapshot;
+            current.revoked.put(jti, expiresAt);
+            current.filter.add(jti);
+        }
+    }
+
+    /**
+     * Purges expired rows and rebuilds the in-memory view from the table, which
+     * also picks up revocations made on other instances. The Bloom filter cannot
+     * forget entries, so it is rebuilt rather than updated.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.auth.revocation.refresh-interval:PT1M}")
+    public void refresh() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+
+        Map<String, Instant> revoked = new ConcurrentHashMap<>();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            revoked.put(token.getJti(), token.getExpiresAt());
+        }
+
+        // Keep local revocations that raced with the reload. Merged under the
+        // lock revoke() takes, so none can land in the old snapshot after the copy.
+        synchronized (snapshotLock) {
+            snapshot.revoked.forEach((jti, expiresAt) -> {
+                if (now.isBefore(expiresAt)) {
+                    revoked.putIfAbsent(jti, expiresAt);
+                }
+            });
+
+            BloomFilter filter = new BloomFilter(Math.max(MIN_CAPACITY, revoked.size() * 2), FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(filter::add);
+            snapshot = new Snapshot(revoked, filter);
+        }
+    }
+
+    private record Snapshot(Map<String, Instant> revoked, BloomFilter filter) {}
+}
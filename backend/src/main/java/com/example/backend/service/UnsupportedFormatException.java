@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Thrown for an export or import format other than the supported ones.
+ * Mapped to 400.
+ */
+public class UnsupportedFormatException extends RuntimeException {
+
+    public UnsupportedFormatException(String message) {
+        super(message);
+    }
+}
@@ -15,6 +15,9 @@ public class UserService {
 @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -36,9 +39,12 @@ public class UserService {
 
     public void deleteUserById(Long id){
         userRepository.deleteById(id);  
+        userDetailsService.evict(id);
     }
 
     public User saveOrUpdateUser(User user){
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsService.evict(saved.getId());
+        return saved;
     }
 }
@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Thrown when If-Match names a version the todo no longer has, i.e. someone
+ * else changed it in the meantime. Mapped to 412.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(Long id) {
+        super("ToDo " + id + " was modified, reload and retry");
+    }
+}
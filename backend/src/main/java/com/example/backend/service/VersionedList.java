@@ -0,0 +1,20 @@
+package com.example.backend.service;
+
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * A list read together with the list version it was read at. The body is
+ * null when the caller's copy is already current.
+ */
+public record VersionedList<T>(long version, T body) {
+
+    /** Runs the query only if {@code current} rejects the version. */
+    public static <T> VersionedList<T> read(long version, LongPredicate current, Supplier<T> query) {
+        return new VersionedList<>(version, current.test(version) ? null : query.get());
+    }
+
+    public boolean notModified() {
+        return body == null;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 helpers: fields are quoted only when they contain a
+ * separator, a quote or a line break.
+ */
+public final class Csv {
+
+    public static final char SEPARATOR = ',';
+    public static final String LINE_END = "\r\n";
+
+    private Csv() {}
+
+    /** The field as it goes into a CSV line; null becomes an empty field. */
+    public static String field(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(SEPARATOR) < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Reads one record at a time; quoted fields may span lines. A field
+     * longer than {@code maxFieldLength}, a record with more than
+     * {@code maxFields} fields or longer than {@code maxRecordLength}
+     * characters (separators included) fails the read, so neither a broken
+     * quote nor a line of separators can pull the rest of the file into memory.
+     */
+    public static final class RecordReader {
+
+        private final BufferedReader in;
+        private final int maxFieldLength;
+        private final int maxFields;
+        private final int maxRecordLength;
+        private final StringBuilder field = new StringBuilder();
+        private int recordLength;
+
+        public RecordReader(BufferedReader in, int maxFieldLength, int maxFields, int maxRecordLength) {
+            this.in = in;
+            this.maxFieldLength = maxFieldLength;
+            this.maxFields = maxFields;
+            this.maxRecordLength = maxRecordLength;
+        }
+
+        /** The next record, or null at the end of the input. */
+        public List<String> next() throws IOException {
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            field.setLength(0);
+            recordLength = 0;
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int following = in.read();
+                        if (following != '"') {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    }
+                    append(c);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == SEPARATOR) {
+                    if (fields.size() + 1 == maxFields) {
+                        throw new IOException("Record has more than " + maxFields + " fields");
+                    }
+                    count();
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    // CRLF und einzelnes CR beenden den Datensatz
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                    break;
+                } else {
+                    append(c);
+                }
+                c = in.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private void append(int c) throws IOException {
+            if (field.length() == maxFieldLength) {
+                throw new IOException("Field longer than " + maxFieldLength + " characters");
+            }
+            count();
+            field.append((char) c);
+        }
+
+        private void count() throws IOException {
+            if (recordLength == maxRecordLength) {
+                throw new IOException("Record longer than " + maxRecordLength + " characters");
+            }
+            recordLength++;
+        }
+    }
+}
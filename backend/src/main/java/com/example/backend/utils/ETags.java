@@ -0,0 +1,73 @@
+package com.example.backend.utils;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Strong entity tags for todos and todo lists, and the header comparisons
+ * for If-None-Match and If-Match.
+ */
+public final class ETags {
+
+    /** Never equal to a stored version, so an unusable If-Match always fails. */
+    public static final long UNMATCHABLE_VERSION = -1L;
+
+    private ETags() {}
+
+    /** Tag of a single todo: its row version. */
+    public static String forVersion(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Tag of a list response. The user id keeps two accounts on the same
+     * version from sharing a cached list in one browser; the hash separates
+     * pages and sort orders of the same list version.
+     */
+    public static String forList(Long userId, long listVersion, Object... params) {
+        String query = Arrays.stream(params).map(String::valueOf).collect(Collectors.joining("|"));
+        return "\"" + userId + "." + listVersion + "." + Integer.toHexString(query.hashCode()) + "\"";
+    }
+
+    /**
+     * If-None-Match: weak comparison against a list of tags or "*". A missing
+     * header never matches.
+     */
+    public static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Expected row version from If-Match, or null when there is no
+     * precondition (no header or "*"). Weak or unparsable tags cannot pass a
+     * strong comparison and yield {@link #UNMATCHABLE_VERSION}.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return UNMATCHABLE_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE_VERSION;
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -2,64 +2,114 @@ package com.example.backend.utils;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.UUID;
 
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.backend.model.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
 
 @Service
 public class JwtService {
 
-    private final String secretKey;
+    static final String USER_ID_CLAIM = "uid";
 
-    public JwtService(String jwtSecret) {
-        this.secretKey = jwtSecret;
-    }
+    private static final long VERIFIED_CACHE_SIZE = 10_000;
 
-    public String generateToken(UserDetails userDetails) {
-        return Jwts.builder()
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24)) // 24h
-                .signWith(getSignInKey())
-                .compact();
-    }
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Duration accessTokenTtl;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    // Keyed by a digest of the token, entries live until the token expires
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        return extractUsername(token).equals(userDetails.getUsername())
-                && !isTokenExpired(token);
+    public JwtService(String jwtSecret, @Value("${app.auth.access-token-ttl:15m}") Duration accessTokenTtl) {
+        this.accessTokenTtl = accessTokenTtl;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(VERIFIED_CACHE_SIZE)
+                .expireAfter(Expiry.creating((String digest, VerifiedToken token) ->
+                        Duration.between(Instant.now(), token.getExpiresAt())))
+                .build();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Short-lived access token, renewed through a refresh token instead of a
+     * new password login.
+     */
+    public String generateToken(AuthenticatedUser user) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtl.toMillis()))
+                .signWith(signingKey)
+                .compact();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        return resolver.apply(extractAllClaims(token));
-    }
+    /**
+     * Parses and verifies the token once. Repeat calls with the same token are
+     * answered from the cache without checking the signature again.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId == null || claims.getSubject() == null) {
+            throw new MalformedJwtException("Token has no user id");
+        }
+        if (claims.getId() == null) {
+            throw new MalformedJwtException("Token has no id");
+        }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        VerifiedToken verified = new VerifiedToken(
+                claims.getId(),
+                userId,
+                claims.getSubject(),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
+        verifiedTokens.put(digest, verified);
+        return verified;
     }
 
-    private Key getSignInKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
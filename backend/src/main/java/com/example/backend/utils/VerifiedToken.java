@@ -0,0 +1,31 @@
+package com.example.backend.utils;
+
+import java.time.Instant;
+
+import com.example.backend.model.AuthenticatedUser;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Claims of a token whose signature has already been checked. Immutable, so one
+ * instance can be shared by every request that presents the same token.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final String tokenId;
+    private final Long userId;
+    private final String username;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+
+    public AuthenticatedUser toPrincipal() {
+        return new AuthenticatedUser(userId, username, null);
+    }
+}
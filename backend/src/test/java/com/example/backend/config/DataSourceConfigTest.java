@@ -0,0 +1,217 @@
+package com.example.backend.config;
+
+import com.example.backend.model.AuthenticatedUser;
+import com.example.backend.model.DbSecret;
+import com.example.backend.service.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import jakarta.servlet.http.Cookie;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DataSourceConfig Unit Tests")
+class DataSourceConfigTest {
+
+    private DbSecret secret;
+
+    @BeforeEach
+    void setUp() {
+        secret = new DbSecret();
+        secret.setHost("db");
+        secret.setPort("5432");
+        secret.setDbInstanceIdentifier("todo");
+        secret.setUsername("app");
+        secret.setPassword("pw1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should derive a fixed pool size from the CPU count by default")
+    void createDataSource_defaults_sizedFromCpus() {
+        // Given
+        DataSourceConfig config = config(0, -1);
+
+        // When
+        try (HikariDataSource ds = config.createDataSource(DataSourceConfig.POOL_NAME, secret.toJdbcUrl(), secret)) {
+            // Then
+            int expected = Runtime.getRuntime().availableProcessors() * 2 + 1;
+            assertEquals(expected, ds.getMaximumPoolSize());
+            assertEquals(expected, ds.getMinimumIdle());
+            assertEquals(DataSourceConfig.POOL_NAME, ds.getPoolName());
+            assertEquals("jdbc:postgresql://db:5432/todo", ds.getJdbcUrl());
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply configured pool and PgJDBC settings")
+    void createDataSource_configured_applied() {
+        // Given
+        DataSourceConfig config = config(8, 2);
+
+        // When
+        try (HikariDataSource ds = config.createDataSource(DataSourceConfig.POOL_NAME, secret.toJdbcUrl(), secret)) {
+            // Then
+            assertEquals(8, ds.getMaximumPoolSize());
+            assertEquals(2, ds.getMinimumIdle());
+            assertEquals(3_000, ds.getConnectionTimeout());
+            assertEquals(Duration.ofMinutes(1).toMillis(), ds.getKeepaliveTime());
+            assertEquals(Duration.ofSeconds(20).toMillis(), ds.getLeakDetectionThreshold());
+            // Strings, sonst ignoriert PgJDBC die Werte
+            assertEquals("3", ds.getDataSourceProperties().get("prepareThreshold"));
+            assertEquals("true", ds.getDataSourceProperties().get("reWriteBatchedInserts"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should swap rotated credentials into the existing data source")
+    void rotateCredentials_updatesCredentials() {
+        // Given
+        try (HikariDataSource ds = config(0, -1).createDataSource(DataSourceConfig.POOL_NAME, secret.toJdbcUrl(), secret)) {
+            DbSecret rotated = new DbSecret();
+            rotated.setUsername("app2");
+            rotated.setPassword("pw2");
+
+            // When
+            DataSourceConfig.rotateCredentials(ds, rotated);
+
+            // Then
+            assertEquals("app2", ds.getUsername());
+            assertEquals("pw2", ds.getPassword());
+        }
+    }
+
+    @Test
+    @DisplayName("Should send read-only connections to a replica and writes to the primary")
+    void routingDataSource_readOnly_usesReplica() throws Exception {
+        // Given
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        DataSource routing = DataSourceConfig.routingDataSource(primary, List.of(replica), new ReadYourWritesTracker(Duration.ofSeconds(5)));
+
+        // When
+        try (Connection readOnly = routing.getConnection()) {
+            readOnly.setReadOnly(true);
+            readOnly.createStatement();
+        }
+        try (Connection write = routing.getConnection()) {
+            write.createStatement();
+        }
+
+        // Then
+        verify(replica, times(1)).getConnection();
+        verify(primary, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should keep reads on the primary right after the user wrote")
+    void routingDataSource_recentWrite_readsPrimary() throws Exception {
+        // Given
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5));
+        DataSource routing = DataSourceConfig.routingDataSource(primary, List.of(replica), tracker);
+
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(1L, "testuser", null), null, List.of()));
+        tracker.recordWrite();
+
+        // When
+        try (Connection readOnly = routing.getConnection()) {
+            readOnly.setReadOnly(true);
+            readOnly.createStatement();
+        }
+
+        // Then
+        verify(primary, times(1)).getConnection();
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    @DisplayName("Should keep reads on the primary when the write happened on another instance")
+    void routingDataSource_writeOnOtherInstance_readsPrimary() throws Exception {
+        // Given: Instanz A nimmt den Schreibzugriff an und setzt das Cookie
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(1L, "testuser", null), null, List.of()));
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), writeResponse));
+        new ReadYourWritesTracker(Duration.ofSeconds(5)).recordWrite();
+        new ReadYourWritesTracker(Duration.ofSeconds(5)).recordWrite();
+        Cookie lastWrite = writeResponse.getCookie("last_write");
+
+        // Instanz B bekommt die nächste Anfrage mit dem Cookie
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        DataSource routing = DataSourceConfig.routingDataSource(primary, List.of(replica), new ReadYourWritesTracker(Duration.ofSeconds(5)));
+        MockHttpServletRequest readRequest = new MockHttpServletRequest();
+        readRequest.setCookies(lastWrite);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(readRequest, new MockHttpServletResponse()));
+
+        // When
+        try (Connection readOnly = routing.getConnection()) {
+            readOnly.setReadOnly(true);
+            readOnly.createStatement();
+        }
+
+        // Then
+        assertNotNull(lastWrite);
+        assertEquals(1, writeResponse.getHeaders("Set-Cookie").size());
+        verify(primary, times(1)).getConnection();
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    @DisplayName("Should read from the replica once the write cookie has expired")
+    void routingDataSource_expiredWriteCookie_readsReplica() throws Exception {
+        // Given
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        DataSource routing = DataSourceConfig.routingDataSource(primary, List.of(replica), new ReadYourWritesTracker(Duration.ofSeconds(5)));
+
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(1L, "testuser", null), null, List.of()));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("last_write", Long.toString(System.currentTimeMillis() - 1_000)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+
+        // When
+        try (Connection readOnly = routing.getConnection()) {
+            readOnly.setReadOnly(true);
+            readOnly.createStatement();
+        }
+
+        // Then
+        verify(replica, times(1)).getConnection();
+        verifyNoInteractions(primary);
+    }
+
+    private DataSourceConfig config(int maximumPoolSize, int minimumIdle) {
+        return new DataSourceConfig(maximumPoolSize, minimumIdle, Duration.ofSeconds(3), Duration.ofMinutes(10),
+                Duration.ofMinutes(30), Duration.ofMinutes(1), Duration.ofSeconds(20), 3, true, List.of());
+    }
+}
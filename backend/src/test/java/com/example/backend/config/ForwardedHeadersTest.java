@@ -0,0 +1,117 @@
+package com.example.backend.config;
+
+import com.example.backend.service.LoginRateLimiter;
+import com.example.backend.service.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.tomcat.autoconfigure.TomcatServerProperties;
+import org.springframework.boot.tomcat.autoconfigure.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.tomcat.servlet.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.server.autoconfigure.ServerProperties;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs an embedded Tomcat configured from application.properties the way
+ * Spring Boot does, with a servlet that feeds the resolved client address
+ * into the login limiter like AuthController does.
+ */
+@DisplayName("Forwarded header handling")
+class ForwardedHeadersTest {
+
+    private WebServer webServer;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new ResourcePropertySource(new ClassPathResource("application.properties")));
+        Binder binder = Binder.get(environment);
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        new TomcatWebServerFactoryCustomizer(environment,
+                binder.bindOrCreate("server", ServerProperties.class),
+                binder.bindOrCreate("server.tomcat", TomcatServerProperties.class),
+                new WebProperties()).customize(factory);
+
+        // Eine Anmeldung pro IP, je Anfrage ein neuer Username, damit nur der IP-Bucket greift
+        LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), 100, 1, Duration.ofMinutes(1));
+        AtomicInteger users = new AtomicInteger();
+        HttpServlet login = new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                try {
+                    limiter.acquire("user" + users.incrementAndGet(), request.getRemoteAddr());
+                    response.setStatus(200);
+                } catch (LoginThrottledException e) {
+                    response.setStatus(429);
+                }
+                response.getWriter().write(request.getRemoteAddr());
+            }
+        };
+
+        webServer = factory.getWebServer(context -> context.addServlet("login", login).addMapping("/auth/login"));
+        webServer.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        webServer.stop();
+    }
+
+    private HttpResponse<String> login(String forwardedFor) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + webServer.getPort() + "/auth/login"))
+                .POST(HttpRequest.BodyPublishers.noBody());
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Should give each forwarded client IP its own login bucket")
+    void forwardedClients_separateIpBuckets() throws Exception {
+        // When
+        HttpResponse<String> first = login("203.0.113.7");
+        HttpResponse<String> second = login("198.51.100.23");
+        HttpResponse<String> firstAgain = login("203.0.113.7");
+
+        // Then
+        assertEquals("203.0.113.7", first.body());
+        assertEquals(200, first.statusCode());
+        assertEquals("198.51.100.23", second.body());
+        assertEquals(200, second.statusCode());
+        assertEquals(429, firstAgain.statusCode());
+    }
+
+    @Test
+    @DisplayName("Should take the hop the proxy appended, not a client-supplied one")
+    void spoofedForwardedFor_usesLastUntrustedHop() throws Exception {
+        // When: der Client schickt selbst eine gefälschte Adresse, der Proxy hängt die echte an
+        HttpResponse<String> response = login("1.2.3.4, 203.0.113.7");
+
+        // Then
+        assertEquals("203.0.113.7", response.body());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend.config;
+
+import com.example.backend.controller.AuthController;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.TokenRevocationService;
+import com.example.backend.utils.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Sends requests through the real security filter chain, so the access rules
+ * in SecurityConfig are what decides whether AuthController runs.
+ */
+@DisplayName("Logout security tests")
+class LogoutSecurityTest {
+
+    private static final String SECRET = "testSecretKeyThatIsLongEnoughForHS256AlgorithmToWork1234567890";
+
+    private AnnotationConfigWebApplicationContext context;
+    private MockMvc mockMvc;
+    private AuthService authService;
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(WebConfig.class);
+        context.refresh();
+
+        authService = context.getBean(AuthService.class);
+        revocationService = context.getBean(TokenRevocationService.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Should revoke the refresh token and clear cookies when the access token has expired")
+    void logout_expiredAccessToken_revokesRefreshToken() throws Exception {
+        // When
+        MockHttpServletResponse response = mockMvc.perform(post("/auth/logout")
+                        .cookie(new Cookie("jwt", expiredToken()), new Cookie("refresh_token", "refresh.token")))
+                .andReturn().getResponse();
+
+        // Then
+        assertEquals(204, response.getStatus());
+        verify(authService, times(1)).logout("refresh.token");
+        verify(revocationService, never()).revoke(any(), any());
+        assertEquals(2, response.getHeaders("Set-Cookie").size());
+        assertTrue(response.getHeaders("Set-Cookie").stream().allMatch(c -> c.contains("Max-Age=0")));
+    }
+
+    @Test
+    @DisplayName("Should still reject an expired access token on protected endpoints")
+    void me_expiredAccessToken_unauthorized() throws Exception {
+        // When
+        MockHttpServletResponse response = mockMvc.perform(get("/auth/me").cookie(new Cookie("jwt", expiredToken())))
+                .andReturn().getResponse();
+
+        // Then
+        assertEquals(401, response.getStatus());
+    }
+
+    private static String expiredToken() {
+        return Jwts.builder()
+                .setId("jti-1")
+                .setSubject("testuser")
+                .claim("uid", 1L)
+                .setIssuedAt(new Date(System.currentTimeMillis() - 20 * 60_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 5 * 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthController.class})
+    static class WebConfig {
+
+        @Bean
+        JwtService jwtService() {
+            return new JwtService(SECRET, Duration.ofMinutes(15));
+        }
+
+        @Bean
+        AuthService authService() {
+            return mock(AuthService.class);
+        }
+
+        @Bean
+        TokenRevocationService tokenRevocationService() {
+            return mock(TokenRevocationService.class);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.backend.controller;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -8,28 +9,45 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 
+import com.example.backend.dto.AuthTokens;
+import com.example.backend.dto.LoginRequest;
 import com.example.backend.dto.LoginResponse;
 import com.example.backend.dto.RegisterRequest;
 import com.example.backend.service.AuthService;
+import com.example.backend.service.LoginThrottledException;
+import com.example.backend.service.PasswordHashingBusyException;
+import com.example.backend.service.TokenRevocationService;
+import com.example.backend.utils.VerifiedToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 class AuthControllerTest {
 
     @Mock
     private AuthService authService;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private AuthController authController;
 
-    private MockHttpServletResponse response;
-
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        response = new MockHttpServletResponse();
     }
 
     @Test
@@ -37,17 +55,17 @@ class AuthControllerTest {
         RegisterRequest request = new RegisterRequest("newuser", "password123");
         String expectedJwt = "jwt.token.here";
 
-        when(authService.register("newuser", "password123")).thenReturn(expectedJwt);
+        when(authService.register("newuser", "password123")).thenReturn(CompletableFuture.completedFuture(tokens(expectedJwt)));
 
-        ResponseEntity<?> result = authController.register(request, response);
+        ResponseEntity<LoginResponse> result = authController.register(request).join();
 
         assertEquals(HttpStatus.CREATED, result.getStatusCode());
         assertNotNull(result.getBody());
-        assertTrue(result.getBody() instanceof LoginResponse);
-        assertEquals(expectedJwt, ((LoginResponse) result.getBody()).getToken());
+        assertEquals(expectedJwt, result.getBody().getToken());
         
         // Verify JWT cookie was set
-        String setCookieHeader = response.getHeader("Set-Cookie");
+        String setCookieHeader = result.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertTrue(result.getHeaders().get(HttpHeaders.SET_COOKIE).get(1).contains("refresh_token=refresh.token"));
         assertNotNull(setCookieHeader);
         assertTrue(setCookieHeader.contains("jwt=" + expectedJwt));
         assertTrue(setCookieHeader.contains("HttpOnly"));
@@ -63,7 +81,9 @@ class AuthControllerTest {
         when(authService.register("existinguser", "password123"))
             .thenThrow(new IllegalArgumentException("Username already exists"));
 
-        ResponseEntity<?> result = authController.register(request, response);
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+            () -> authController.register(request));
+        ResponseEntity<String> result = authController.handleConflict(thrown);
 
         assertEquals(HttpStatus.CONFLICT, result.getStatusCode());
         assertEquals("Username already exists", result.getBody());
@@ -75,11 +95,90 @@ class AuthControllerTest {
         RegisterRequest request = new RegisterRequest(null, "password123");
 
         when(authService.register(null, "password123"))
-            .thenThrow(new IllegalArgumentException("Username is required"));
+            .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Username is required")));
 
-        ResponseEntity<?> result = authController.register(request, response);
+        CompletionException thrown = assertThrows(CompletionException.class,
+            () -> authController.register(request).join());
+        ResponseEntity<String> result = authController.handleConflict((IllegalArgumentException) thrown.getCause());
 
         assertEquals(HttpStatus.CONFLICT, result.getStatusCode());
-        assertTrue(result.getBody() instanceof String);
+        assertEquals("Username is required", result.getBody());
+    }
+
+    @Test
+    void login_validCredentials_ok() {
+        LoginRequest request = new LoginRequest("testuser", "password123");
+
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.setRemoteAddr("10.0.0.1");
+        when(authService.login("testuser", "password123", "10.0.0.1")).thenReturn(CompletableFuture.completedFuture(tokens("jwt.token.here")));
+
+        ResponseEntity<LoginResponse> result = authController.login(request, httpRequest).join();
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("jwt.token.here", result.getBody().getToken());
+        assertTrue(result.getHeaders().getFirst(HttpHeaders.SET_COOKIE).contains("jwt=jwt.token.here"));
+    }
+
+    @Test
+    void refresh_validCookie_ok() {
+        when(authService.refresh("old.refresh")).thenReturn(tokens("new.access"));
+
+        ResponseEntity<LoginResponse> result = authController.refresh("old.refresh");
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("new.access", result.getBody().getToken());
+        assertEquals(2, result.getHeaders().get(HttpHeaders.SET_COOKIE).size());
+    }
+
+    @Test
+    void refresh_missingCookie_unauthorized() {
+        ResponseEntity<LoginResponse> result = authController.refresh(null);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, result.getStatusCode());
+        verify(authService, never()).refresh(any());
+    }
+
+    @Test
+    void login_badCredentials_unauthorized() {
+        ResponseEntity<String> result = authController.handleBadCredentials(new BadCredentialsException("Bad credentials"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, result.getStatusCode());
+    }
+
+    @Test
+    void login_throttled_tooManyRequests() {
+        ResponseEntity<String> result = authController.handleThrottled(new LoginThrottledException(12));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, result.getStatusCode());
+        assertEquals("12", result.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void login_hashingPoolSaturated_serviceUnavailable() {
+        ResponseEntity<String> result = authController.handleHashingBusy(
+            new PasswordHashingBusyException(new RejectedExecutionException()));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, result.getStatusCode());
+        assertEquals("1", result.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void logout_authenticated_revokesToken() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        VerifiedToken token = new VerifiedToken("jti-1", 1L, "testuser", Instant.now(), expiresAt);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<Void> result = authController.logout(
+            new UsernamePasswordAuthenticationToken(token.toPrincipal(), token, List.of()), "refresh.token", response);
+
+        assertEquals(HttpStatus.NO_CONTENT, result.getStatusCode());
+        verify(tokenRevocationService, times(1)).revoke("jti-1", expiresAt);
+        verify(authService, times(1)).logout("refresh.token");
+        assertTrue(response.getHeaders("Set-Cookie").stream().allMatch(c -> c.contains("Max-Age=0")));
+    }
+
+    private static AuthTokens tokens(String accessToken) {
+        return new AuthTokens(accessToken, Duration.ofMinutes(15), "refresh.token", Duration.ofDays(30));
     }
 }
@@ -5,26 +5,64 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import com.example.backend.dto.BatchItemResult;
+import com.example.backend.dto.BatchResponse;
+import com.example.backend.dto.BulkActionResponse;
+import com.example.backend.dto.CursorPage;
+import com.example.backend.dto.DayCount;
+import com.example.backend.dto.ImportResponse;
+import com.example.backend.dto.ImportRowError;
+import com.example.backend.dto.PagedResponse;
+import com.example.backend.dto.TitleSuggestion;
+import com.example.backend.dto.ToDoPatch;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.dto.ToDoSummary;
+import com.example.backend.model.AuthenticatedUser;
 import com.example.backend.model.ToDo;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.service.InvalidBatchException;
+import com.example.backend.service.InvalidBulkActionException;
+import com.example.backend.service.InvalidCursorException;
+import com.example.backend.service.InvalidPatchException;
+import com.example.backend.service.InvalidRangeException;
+import com.example.backend.service.InvalidSortException;
+import com.example.backend.service.InvalidToDoException;
+import com.example.backend.service.ToDoExportService;
+import com.example.backend.service.ToDoFileFormat;
+import com.example.backend.service.ToDoImportService;
+import com.example.backend.service.ToDoNotFoundException;
 import com.example.backend.service.ToDoService;
-
+import com.example.backend.service.ToDoSortKey;
+import com.example.backend.service.ToDoTitleIndex;
+import com.example.backend.service.UnsupportedFormatException;
+import com.example.backend.service.VersionConflictException;
+import com.example.backend.service.VersionedList;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ToDoControllerTest {
@@ -35,6 +73,15 @@ class ToDoControllerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ToDoExportService exportService;
+
+    @Mock
+    private ToDoImportService importService;
+
+    @Mock
+    private ToDoTitleIndex titleIndex;
+
     @InjectMocks
     private ToDoController todoController;
 
@@ -58,14 +105,19 @@ class ToDoControllerTest {
         testToDo.setDescription("Test Description");
         testToDo.setCompleted(false);
         testToDo.setUser(testUser);
+        testToDo.setVersion(3L);
 
         // Setup security context
-        setupSecurityContext("testuser");
+        setupSecurityContext(new AuthenticatedUser(1L, "testuser", null));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        // Wie der Service: Version und Liste aus einem Lesevorgang
+        when(todoService.readList(anyLong(), any(), any())).thenAnswer(invocation -> VersionedList.read(
+            todoService.getListVersion(invocation.getArgument(0)), invocation.getArgument(1), invocation.getArgument(2)));
     }
 
-    private void setupSecurityContext(String username) {
+    private void setupSecurityContext(AuthenticatedUser principal) {
         List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
-        Authentication authentication = new UsernamePasswordAuthenticationToken(username, null, authorities);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
         SecurityContext securityContext = mock(SecurityContext.class);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
@@ -73,10 +125,9 @@ class ToDoControllerTest {
 
     @Test
     void create_valid_created() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(todoService.createToDo(any(ToDo.class))).thenReturn(testToDo);
 
-        ResponseEntity<ToDo> response = todoController.create(testToDo);
+        ResponseEntity<ToDoResponse> response = todoController.create(testToDo);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -84,12 +135,22 @@ class ToDoControllerTest {
         verify(todoService, times(1)).createToDo(any(ToDo.class));
     }
 
+    @Test
+    void create_invalid_badRequest() {
+        ToDo untitled = new ToDo();
+        when(todoService.createToDo(untitled)).thenThrow(new InvalidToDoException("title must not be empty"));
+
+        InvalidToDoException e = assertThrows(InvalidToDoException.class, () -> todoController.create(untitled));
+        ResponseEntity<String> response = todoController.handleBadRequest(e);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("title must not be empty", response.getBody());
+    }
+
     @Test
     void get_exists_ok() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(todoService.getToDo(1L)).thenReturn(Optional.of(testToDo));
+        when(todoService.getToDo(1L, 1L)).thenReturn(Optional.of(ToDoResponse.from(testToDo)));
 
-        ResponseEntity<ToDo> response = todoController.get(1L);
+        ResponseEntity<ToDoResponse> response = todoController.get(1L, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -98,46 +159,135 @@ class ToDoControllerTest {
 
     @Test
     void get_missing_notFound() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(todoService.getToDo(999L)).thenReturn(Optional.empty());
+        when(todoService.getToDo(999L, 1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<ToDo> response = todoController.get(999L);
+        ResponseEntity<ToDoResponse> response = todoController.get(999L, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     void get_notOwner_notFound() {
-        User otherUser = new User();
-        otherUser.setId(2L);
-        otherUser.setUsername("otheruser");
-
-        ToDo otherUserToDo = new ToDo();
-        otherUserToDo.setId(1L);
-        otherUserToDo.setTitle("Other User's ToDo");
-        otherUserToDo.setUser(otherUser);
-
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(todoService.getToDo(1L)).thenReturn(Optional.of(otherUserToDo));
+        // Fremde ToDos findet die Query nicht, der Service liefert leer
+        setupSecurityContext(new AuthenticatedUser(2L, "otheruser", null));
+        when(todoService.getToDo(1L, 2L)).thenReturn(Optional.empty());
 
-        ResponseEntity<ToDo> response = todoController.get(1L);
+        ResponseEntity<ToDoResponse> response = todoController.get(1L, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(todoService).getToDo(1L, 2L);
     }
 
     @Test
     void list_valid_ok() {
-        List<ToDo> todos = new ArrayList<>();
-        todos.add(testToDo);
+        List<ToDoResponse> todos = new ArrayList<>();
+        todos.add(ToDoResponse.from(testToDo));
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(todoService.getToDosForUser(testUser)).thenReturn(todos);
+        when(todoService.getToDosForUserPaged(eq(testUser), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(todos));
 
-        ResponseEntity<List<ToDo>> response = todoController.list();
+        ResponseEntity<PagedResponse<ToDoResponse>> response = todoController.list(0, 10, "id", "DESC", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getContent().size());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void listByCursor_valid_ok() {
+        when(todoService.getToDosForUserAfter(testUser, ToDoSortKey.DUE_DATE, Sort.Direction.ASC, "", 100, false))
+            .thenReturn(new CursorPage<>(List.of(ToDoResponse.from(testToDo)), 100, "next", null));
+
+        ResponseEntity<CursorPage<ToDoResponse>> response = todoController.listByCursor("", 500, "dueDate", "asc", false, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next", response.getBody().getNext());
+    }
+
+    @Test
+    void search_clampsPageSize() {
+        when(todoService.getListVersion(1L)).thenReturn(5L);
+        when(todoService.searchToDos(1L, "einkaufen", null, 100))
+            .thenReturn(new CursorPage<>(List.of(ToDoResponse.from(testToDo)), 100, null, null));
+
+        ResponseEntity<CursorPage<ToDoResponse>> response = todoController.search("einkaufen", null, 1000, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getContent().size());
+        assertNotNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void range_currentUser_okWithETag() {
+        LocalDate from = LocalDate.of(2026, 10, 1);
+        LocalDate to = LocalDate.of(2026, 10, 31);
+        when(todoService.getListVersion(1L)).thenReturn(5L);
+        when(todoService.getToDosDueBetween(1L, from, to))
+            .thenReturn(List.of(new ToDoSummary(1L, "Test ToDo", false, LocalDateTime.of(2026, 10, 5, 9, 0))));
+
+        ResponseEntity<List<ToDoSummary>> response = todoController.range(from, to, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().size());
+        assertNotNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void rangeCounts_matchingIfNoneMatch_skipsQuery() {
+        LocalDate from = LocalDate.of(2026, 10, 1);
+        LocalDate to = LocalDate.of(2026, 10, 31);
+        when(todoService.getListVersion(1L)).thenReturn(5L);
+        when(todoService.countToDosDueByDay(1L, from, to)).thenReturn(List.of(new DayCount(from, 3)));
+        String etag = todoController.rangeCounts(from, to, null).getHeaders().getETag();
+
+        ResponseEntity<List<DayCount>> response = todoController.rangeCounts(from, to, etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNotEquals(etag, todoController.range(from, to, null).getHeaders().getETag());
+        verify(todoService, times(1)).countToDosDueByDay(1L, from, to);
+    }
+
+    @Test
+    void range_invalid_badRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+            todoController.handleBadRequest(new InvalidRangeException("to must not be before from")).getStatusCode());
+    }
+
+    @Test
+    void autocomplete_currentUser_ok() {
+        when(titleIndex.suggest(1L, "eink", 10)).thenReturn(List.of(new TitleSuggestion(1L, "Einkaufen")));
+
+        ResponseEntity<List<TitleSuggestion>> response = todoController.autocomplete("eink", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Einkaufen", response.getBody().get(0).getTitle());
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void listByCursor_unknownSort_throws() {
+        assertThrows(InvalidSortException.class, () -> todoController.listByCursor("", 10, "password", "ASC", false, null));
+        assertEquals(HttpStatus.BAD_REQUEST, todoController.handleBadRequest(new InvalidCursorException("x")).getStatusCode());
+    }
+
+    @Test
+    void list_indexedSort_addsIdTiebreaker() {
+        when(todoService.getToDosForUserPaged(eq(testUser), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(ToDoResponse.from(testToDo))));
+
+        todoController.list(0, 10, "dueDate", "asc", null);
+
+        verify(todoService).getToDosForUserPaged(eq(testUser), argThat(pageable ->
+            pageable.getSort().equals(Sort.by(Sort.Direction.ASC, "dueDate").and(Sort.by(Sort.Direction.ASC, "id")))));
+    }
+
+    @Test
+    void list_unindexedSort_rejected() {
+        assertThrows(InvalidSortException.class, () -> todoController.list(0, 10, "description", "ASC", null));
+        assertThrows(InvalidSortException.class, () -> todoController.list(0, 10, "id", "sideways", null));
+        assertEquals(HttpStatus.BAD_REQUEST, todoController.handleBadRequest(new InvalidSortException("x")).getStatusCode());
+        verifyNoInteractions(todoService);
     }
 
     @Test
@@ -147,15 +297,26 @@ class ToDoControllerTest {
         updatedToDo.setDescription("Updated Description");
         updatedToDo.setCompleted(true);
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(todoService.getToDo(1L)).thenReturn(Optional.of(testToDo));
-        when(todoService.updateToDo(anyLong(), any(ToDo.class))).thenReturn(updatedToDo);
+        when(todoService.updateToDo(1L, 1L, null, updatedToDo))
+            .thenReturn(new ToDoResponse(1L, "Updated Title", "Updated Description", true, null, null, null, 0L));
 
-        ResponseEntity<ToDo> response = todoController.update(1L, updatedToDo);
+        ResponseEntity<ToDoResponse> response = todoController.update(1L, updatedToDo, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Updated Title", response.getBody().getTitle());
+        verify(todoService, never()).getToDo(anyLong(), anyLong());
+    }
+
+    @Test
+    void update_nullCompleted_badRequest() {
+        ToDo updatedToDo = new ToDo();
+        updatedToDo.setTitle("Updated Title");
+        updatedToDo.setCompleted(null);
+        when(todoService.updateToDo(1L, 1L, null, updatedToDo)).thenThrow(new InvalidToDoException("completed must not be null"));
+
+        InvalidToDoException e = assertThrows(InvalidToDoException.class, () -> todoController.update(1L, updatedToDo, null));
+        assertEquals(HttpStatus.BAD_REQUEST, todoController.handleBadRequest(e).getStatusCode());
     }
 
     @Test
@@ -163,50 +324,230 @@ class ToDoControllerTest {
         ToDo updatedToDo = new ToDo();
         updatedToDo.setTitle("Updated Title");
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(todoService.getToDo(999L)).thenReturn(Optional.empty());
+        when(todoService.updateToDo(999L, 1L, null, updatedToDo)).thenThrow(new ToDoNotFoundException(999L));
 
-        ResponseEntity<ToDo> response = todoController.update(999L, updatedToDo);
+        ToDoNotFoundException e = assertThrows(ToDoNotFoundException.class, () -> todoController.update(999L, updatedToDo, null));
+        assertEquals(HttpStatus.NOT_FOUND, todoController.handleNotFound(e).getStatusCode());
+    }
 
-        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    @Test
+    void patch_completed_ok() {
+        ToDoPatch patch = new ToDoPatch();
+        patch.setCompleted(true);
+
+        when(todoService.patchToDo(1L, 1L, null, patch))
+            .thenReturn(new ToDoResponse(1L, "Test ToDo", "Test Description", true, null, null, null, 0L));
+
+        ResponseEntity<ToDoResponse> response = todoController.patch(1L, patch, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().getCompleted());
+        assertEquals("Test ToDo", response.getBody().getTitle());
     }
 
     @Test
-    void delete_exists_noContent() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(todoService.getToDo(1L)).thenReturn(Optional.of(testToDo));
+    void patch_invalid_badRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, todoController.handleBadRequest(new InvalidPatchException("x")).getStatusCode());
+    }
+
+    @Test
+    void createBatch_valid_ok() {
+        List<ToDo> todos = List.of(testToDo);
+        BatchResponse<ToDoResponse> batch = new BatchResponse<>(List.of(
+            BatchItemResult.success(0, 1L, 201, ToDoResponse.from(testToDo))));
+        when(todoService.createToDos(testUser, todos)).thenReturn(batch);
 
-        ResponseEntity<Void> response = todoController.delete(1L);
+        ResponseEntity<BatchResponse<ToDoResponse>> response = todoController.createBatch(todos);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getSucceeded());
+    }
+
+    @Test
+    void deleteBatch_usesCurrentUser() {
+        when(todoService.deleteToDos(1L, List.of(1L, 2L))).thenReturn(new BatchResponse<>(List.of()));
+
+        todoController.deleteBatch(List.of(1L, 2L));
+
+        verify(todoService).deleteToDos(1L, List.of(1L, 2L));
+        assertEquals(HttpStatus.BAD_REQUEST, todoController.handleBadRequest(new InvalidBatchException("x")).getStatusCode());
+    }
+
+    @Test
+    void completeAll_returnsAffectedCount() {
+        when(todoService.completeAll(1L)).thenReturn(4);
+
+        ResponseEntity<BulkActionResponse> response = todoController.completeAll();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(4, response.getBody().getAffected());
+    }
+
+    @Test
+    void rescheduleOverdue_invalidDays_badRequest() {
+        when(todoService.shiftOverdue(1L, 0)).thenThrow(new InvalidBulkActionException("x"));
+
+        InvalidBulkActionException e = assertThrows(InvalidBulkActionException.class, () -> todoController.rescheduleOverdue(0));
+        assertEquals(HttpStatus.BAD_REQUEST, todoController.handleBadRequest(e).getStatusCode());
+    }
+
+    @Test
+    void delete_exists_noContent() {
+        ResponseEntity<Void> response = todoController.delete(1L, null);
 
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        verify(todoService, times(1)).deleteToDo(1L);
+        verify(todoService, times(1)).deleteToDo(1L, 1L, null);
+        verify(todoService, never()).getToDo(anyLong(), anyLong());
     }
 
     @Test
     void delete_missing_notFound() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(todoService.getToDo(999L)).thenReturn(Optional.empty());
+        doThrow(new ToDoNotFoundException(999L)).when(todoService).deleteToDo(999L, 1L, null);
 
-        ResponseEntity<Void> response = todoController.delete(999L);
-
-        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(todoService, never()).deleteToDo(anyLong());
+        ToDoNotFoundException e = assertThrows(ToDoNotFoundException.class, () -> todoController.delete(999L, null));
+        assertEquals(HttpStatus.NOT_FOUND, todoController.handleNotFound(e).getStatusCode());
     }
 
     @Test
     void listByCompleted_completedTrue_ok() {
-        List<ToDo> completedTodos = new ArrayList<>();
+        List<ToDoResponse> completedTodos = new ArrayList<>();
         testToDo.setCompleted(true);
-        completedTodos.add(testToDo);
+        completedTodos.add(ToDoResponse.from(testToDo));
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(todoService.getCompletedToDosForUser(testUser, true)).thenReturn(completedTodos);
 
-        ResponseEntity<List<ToDo>> response = todoController.listByCompleted(true);
+        ResponseEntity<List<ToDoResponse>> response = todoController.listByCompleted(true, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
         assertTrue(response.getBody().get(0).getCompleted());
     }
+
+    @Test
+    void get_matchingIfNoneMatch_notModified() {
+        when(todoService.getToDo(1L, 1L)).thenReturn(Optional.of(ToDoResponse.from(testToDo)));
+
+        ResponseEntity<ToDoResponse> response = todoController.get(1L, "\"3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void list_matchingIfNoneMatch_skipsQuery() {
+        when(todoService.getListVersion(1L)).thenReturn(5L);
+        when(todoService.getToDosForUserPaged(eq(testUser), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(ToDoResponse.from(testToDo))));
+
+        ResponseEntity<PagedResponse<ToDoResponse>> first = todoController.list(0, 10, "id", "DESC", null);
+        ResponseEntity<PagedResponse<ToDoResponse>> second = todoController.list(0, 10, "id", "DESC", first.getHeaders().getETag());
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(first.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        verify(todoService, times(1)).getToDosForUserPaged(eq(testUser), any(Pageable.class));
+    }
+
+    @Test
+    void list_otherPageOrVersion_newETag() {
+        when(todoService.getListVersion(1L)).thenReturn(5L, 5L, 6L);
+        when(todoService.getToDosForUserPaged(eq(testUser), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(ToDoResponse.from(testToDo))));
+
+        String page0 = todoController.list(0, 10, "id", "DESC", null).getHeaders().getETag();
+        String page1 = todoController.list(1, 10, "id", "DESC", page0).getHeaders().getETag();
+        String page0Later = todoController.list(0, 10, "id", "DESC", page0).getHeaders().getETag();
+
+        assertNotEquals(page0, page1);
+        assertNotEquals(page0, page0Later);
+    }
+
+    @Test
+    void list_laggingReplica_eTagMatchesBody() {
+        // Primary ist schon bei Version 6, das Replikat liefert noch Version 5 samt alter Zeilen
+        when(todoService.getListVersion(1L)).thenReturn(6L);
+        PagedResponse<ToDoResponse> staleBody = new PagedResponse<>(List.of(ToDoResponse.from(testToDo)), 0, 10, 1, 1, true, true);
+        doReturn(new VersionedList<>(5L, staleBody)).when(todoService).readList(eq(1L), any(), any());
+
+        ResponseEntity<PagedResponse<ToDoResponse>> stale = todoController.list(0, 10, "id", "DESC", null);
+
+        when(todoService.getToDosForUserPaged(eq(testUser), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(ToDoResponse.from(testToDo))));
+        doAnswer(invocation -> VersionedList.read(5L, invocation.getArgument(1), invocation.getArgument(2)))
+            .when(todoService).readList(anyLong(), any(), any());
+        String tagAtVersion5 = todoController.list(0, 10, "id", "DESC", null).getHeaders().getETag();
+
+        assertSame(staleBody, stale.getBody());
+        assertEquals(tagAtVersion5, stale.getHeaders().getETag());
+    }
+
+    @Test
+    void update_ifMatch_passesExpectedVersion() {
+        ToDo updatedToDo = new ToDo();
+        updatedToDo.setTitle("Updated Title");
+        updatedToDo.setCompleted(false);
+        when(todoService.updateToDo(1L, 1L, 3L, updatedToDo))
+            .thenReturn(new ToDoResponse(1L, "Updated Title", null, false, null, null, null, 4L));
+
+        ResponseEntity<ToDoResponse> response = todoController.update(1L, updatedToDo, "\"3\"");
+
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void delete_staleIfMatch_preconditionFailed() {
+        doThrow(new VersionConflictException(1L)).when(todoService).deleteToDo(1L, 1L, 2L);
+
+        VersionConflictException e = assertThrows(VersionConflictException.class, () -> todoController.delete(1L, "\"2\""));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, todoController.handleVersionConflict(e).getStatusCode());
+    }
+
+    @Test
+    void export_csv_streamsAsAttachment() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        todoController.export("csv", response);
+
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertEquals("attachment; filename=\"todos.csv\"", response.getHeader("Content-Disposition"));
+        assertEquals("no-store", response.getHeader("Cache-Control"));
+        verify(exportService).export(eq(1L), eq(ToDoFileFormat.CSV), any());
+    }
+
+    @Test
+    void export_unknownFormat_badRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        UnsupportedFormatException e = assertThrows(UnsupportedFormatException.class, () -> todoController.export("xml", response));
+        assertEquals(HttpStatus.BAD_REQUEST, todoController.handleBadRequest(e).getStatusCode());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void import_csv_passesBodyStream() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("title\r\na\r\n".getBytes());
+        ImportResponse result = new ImportResponse(1, 1, 0, true, List.of());
+        when(importService.importToDos(eq(testUser), eq(ToDoFileFormat.CSV), any())).thenReturn(result);
+
+        ResponseEntity<ImportResponse> response = todoController.importToDos("csv", request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(result, response.getBody());
+    }
+
+    @Test
+    void import_aborted_badRequestWithSummary() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("title\r\n,,,\r\n".getBytes());
+        ImportResponse result = new ImportResponse(1, 0, 1, false, List.of(new ImportRowError(1, "Unreadable input")));
+        when(importService.importToDos(eq(testUser), eq(ToDoFileFormat.CSV), any())).thenReturn(result);
+
+        ResponseEntity<ImportResponse> response = todoController.importToDos("csv", request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertSame(result, response.getBody());
+    }
 }
@@ -0,0 +1,312 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.CursorPage;
+import com.example.backend.dto.ToDoPatch;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.model.ToDo;
+import com.example.backend.model.User;
+import com.example.backend.service.ReadYourWritesTracker;
+import com.example.backend.service.ToDoService;
+import com.example.backend.service.ToDoSortKey;
+import com.example.backend.service.ToDoTitleIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.boot.transaction.autoconfigure.TransactionAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the ToDoService read and write paths against real repositories on a
+ * seeded database, records the SQL Hibernate sends, and runs EXPLAIN on each
+ * statement with its original bind values. Fails when Postgres would scan the
+ * whole todos table. Needs Docker, skipped otherwise.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("ToDo query plan tests")
+class ToDoQueryPlanTest {
+
+    private static final int USERS = 200;
+    private static final int TODOS = 40_000;
+
+    @Container
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static final StatementRecorder recorder = new StatementRecorder();
+
+    private static DataSource dataSource;
+    private static ConfigurableApplicationContext context;
+    private static ToDoService todoService;
+    private static TransactionTemplate transactions;
+    private static User user;
+    private static long todoId;
+
+    @BeforeAll
+    static void migrateAndSeed() throws Exception {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.afterPropertiesSet();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (username, password) SELECT 'user' || g, 'x' FROM generate_series(1, ?) g", USERS);
+        long userId = jdbc.queryForObject("SELECT min(id) FROM users", Long.class);
+        // Jeder dritte erledigt, jedes fünfte ohne Fälligkeit
+        jdbc.update("""
+                INSERT INTO todos (title, completed, user_id, due_date, created_at, updated_at)
+                SELECT 'todo ' || g, g % 3 = 0, ? + g % ?,
+                       CASE WHEN g % 5 = 0 THEN NULL ELSE now() + (g % 90) * interval '1 day' END,
+                       now() - g * interval '1 minute', now()
+                FROM generate_series(1, ?) g
+                """, userId, USERS, TODOS);
+        jdbc.execute("ANALYZE");
+        todoId = jdbc.queryForObject("SELECT min(id) FROM todos WHERE user_id = ?", Long.class, userId);
+
+        context = new SpringApplicationBuilder(RepositoryConfig.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--spring.jpa.show-sql=false");
+        todoService = context.getBean(ToDoService.class);
+        transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        user = context.getBean(UserRepository.class).findById(userId).orElseThrow();
+    }
+
+    @AfterAll
+    static void closeContext() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    static Stream<Arguments> serviceCalls() {
+        LocalDate today = LocalDate.now();
+        return Stream.of(
+                Arguments.of("list sorted by id", call(s -> s.getToDosForUserAfter(user, ToDoSortKey.ID, Sort.Direction.DESC, null, 10, false))),
+                Arguments.of("list with total", call(s -> s.getToDosForUserAfter(user, ToDoSortKey.ID, Sort.Direction.DESC, null, 10, true))),
+                Arguments.of("list, deep offset", call(s -> s.getToDosForUserPaged(user, PageRequest.of(15, 10, Sort.by(Sort.Direction.DESC, "id"))))),
+                Arguments.of("list sorted by due date, next page", call(s -> nextPage(s, ToDoSortKey.DUE_DATE, Sort.Direction.ASC))),
+                Arguments.of("list sorted by creation, next page", call(s -> nextPage(s, ToDoSortKey.CREATED_AT, Sort.Direction.DESC))),
+                Arguments.of("completed todos", call(s -> s.getCompletedToDosForUser(user, true))),
+                Arguments.of("due date range", call(s -> s.getToDosDueBetween(user.getId(), today, today.plusDays(6)))),
+                Arguments.of("due date counts per day", call(s -> s.countToDosDueByDay(user.getId(), today, today.plusDays(30)))),
+                Arguments.of("full-text search, next page", call(s -> {
+                    CursorPage<ToDoResponse> first = s.searchToDos(user.getId(), "todo", null, 10);
+                    s.searchToDos(user.getId(), "todo", first.getNext(), 10);
+                })),
+                Arguments.of("single todo", call(s -> s.getToDo(todoId, user.getId()))),
+                Arguments.of("patch", call(s -> {
+                    ToDoPatch patch = new ToDoPatch();
+                    patch.setCompleted(true);
+                    s.patchToDo(todoId, user.getId(), null, patch);
+                })),
+                Arguments.of("batch read", call(s -> s.getToDos(user.getId(), List.of(todoId, todoId + 1)))),
+                Arguments.of("complete all", call(s -> s.completeAll(user.getId()))),
+                Arguments.of("delete completed", call(s -> s.deleteCompleted(user.getId()))),
+                Arguments.of("shift overdue", call(s -> s.shiftOverdue(user.getId(), 1)))
+        );
+    }
+
+    private static Consumer<ToDoService> call(Consumer<ToDoService> call) {
+        return call;
+    }
+
+    // Folgeseite über den Cursor der ersten Seite, damit die Seek-Bedingung mitgeprüft wird
+    private static void nextPage(ToDoService service, ToDoSortKey key, Sort.Direction direction) {
+        CursorPage<ToDoResponse> first = service.getToDosForUserAfter(user, key, direction, null, 10, false);
+        service.getToDosForUserAfter(user, key, direction, first.getNext(), 10, false);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("serviceCalls")
+    void serviceCall_seededData_usesIndex(String name, Consumer<ToDoService> call) throws Exception {
+        // Schreibende Aufrufe werden zurückgerollt, die Seed-Daten bleiben für die anderen Fälle gleich
+        recorder.clear();
+        transactions.executeWithoutResult(status -> {
+            call.accept(todoService);
+            status.setRollbackOnly();
+        });
+
+        List<RecordedStatement> statements = recorder.statements();
+        assertFalse(statements.isEmpty(), () -> name + " sent no SQL");
+        for (RecordedStatement statement : statements) {
+            String plan = explain(statement);
+            assertFalse(plan.contains("Seq Scan on todos"), () -> name + " scans the whole table:\n" + statement.sql() + "\n" + plan);
+        }
+    }
+
+    static Stream<Arguments> deepPages() {
+        return Stream.of(
+                Arguments.of(ToDoSortKey.DUE_DATE, Sort.Direction.ASC, "due_date"),
+                Arguments.of(ToDoSortKey.DUE_DATE, Sort.Direction.DESC, "due_date"),
+                Arguments.of(ToDoSortKey.CREATED_AT, Sort.Direction.DESC, "created_at"),
+                Arguments.of(ToDoSortKey.COMPLETED, Sort.Direction.ASC, "completed")
+        );
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("deepPages")
+    void deepCursorPage_seeksOnSortColumn(ToDoSortKey key, Sort.Direction direction, String column) throws Exception {
+        // Seite 15 von 20: nur ein echter Keyset-Seek hat die Sortierspalte in der Index Cond, sonst steht sie im Filter
+        transactions.executeWithoutResult(status -> {
+            String cursor = null;
+            for (int page = 1; page < 15; page++) {
+                cursor = todoService.getToDosForUserAfter(user, key, direction, cursor, 10, false).getNext();
+            }
+            recorder.clear();
+            todoService.getToDosForUserAfter(user, key, direction, cursor, 10, false);
+        });
+
+        RecordedStatement seek = recorder.statements().get(0);
+        String plan = explain(seek);
+        assertTrue(plan.lines().anyMatch(line -> line.contains("Index Cond:") && line.contains(column)),
+                () -> "deep page on " + column + " does not seek:\n" + seek.sql() + "\n" + plan);
+    }
+
+    private static String explain(RecordedStatement statement) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            for (Bind bind : statement.binds()) {
+                bind.method().invoke(explain, bind.args());
+            }
+            List<String> plan = new ArrayList<>();
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+            return String.join("\n", plan);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EnableJpaRepositories(basePackageClasses = ToDoRepository.class)
+    @EntityScan(basePackageClasses = ToDo.class)
+    @Import({ToDoService.class, ReadYourWritesTracker.class, ToDoTitleIndex.class})
+    static class RepositoryConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return recorder.wrap(dataSource);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private record Bind(Method method, Object[] args) {}
+
+    private record RecordedStatement(String sql, List<Bind> binds) {}
+
+    /**
+     * Wraps the repositories' data source and keeps every prepared statement
+     * they execute together with its bind calls.
+     */
+    private static final class StatementRecorder {
+
+        private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+
+        List<RecordedStatement> statements() {
+            return List.copyOf(statements);
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        DataSource wrap(DataSource target) {
+            return proxy(DataSource.class, (method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+
+        private Connection wrap(Connection target) {
+            return proxy(Connection.class, (method, args) -> {
+                Object result = invoke(target, method, args);
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                    return wrap(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrap(PreparedStatement target, String sql) {
+            List<Bind> binds = new ArrayList<>();
+            return proxy(PreparedStatement.class, (method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && method.getParameterTypes()[0] == int.class) {
+                    binds.add(new Bind(method, args.clone()));
+                } else if (name.equals("clearParameters")) {
+                    binds.clear();
+                } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                    statements.add(new RecordedStatement(sql, List.copyOf(binds)));
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private interface Handler {
+            Object handle(Method method, Object[] args) throws Throwable;
+        }
+
+        private static <T> T proxy(Class<T> type, Handler handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> handler.handle(method, args)));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
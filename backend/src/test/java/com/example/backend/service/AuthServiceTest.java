@@ -1,24 +1,33 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.AuthTokens;
+import com.example.backend.model.AuthenticatedUser;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.utils.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,33 +40,36 @@ class AuthServiceTest {
     @Mock
     private JwtService jwtService;
 
-    @Mock
-    private CustomUserDetailsService userDetailsService;
-
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     private AuthService authService;
 
     private User testUser;
-    private UserDetails testUserDetails;
+    private AuthenticatedUser testUserDetails;
 
     @BeforeEach
     void setUp() {
+        // Hashing runs inline so the futures complete on the test thread
+        PasswordHashingService passwordHashing = new PasswordHashingService(
+                passwordEncoder, Runnable::run, new SimpleMeterRegistry().counter("rejected"));
+        authService = new AuthService(authenticationManager, jwtService, userRepository, passwordHashing, loginRateLimiter, refreshTokenService, Runnable::run);
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername("testuser");
         testUser.setPassword("encodedPassword");
 
-        testUserDetails = org.springframework.security.core.userdetails.User
-                .withUsername("testuser")
-                .password("encodedPassword")
-                .authorities("ROLE_USER")
-                .build();
+        testUserDetails = AuthenticatedUser.from(testUser);
     }
 
     @Test
@@ -69,19 +81,54 @@ class AuthServiceTest {
         String expectedToken = "jwt.token.here";
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(null);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(testUserDetails);
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated(testUserDetails, null, List.of()));
         when(jwtService.generateToken(testUserDetails)).thenReturn(expectedToken);
+        when(refreshTokenService.issue(1L)).thenReturn("refresh.token");
 
         // When
-        String token = authService.login(username, password);
+        AuthTokens tokens = authService.login(username, password, "127.0.0.1").join();
 
         // Then
-        assertNotNull(token);
-        assertEquals(expectedToken, token);
+        assertNotNull(tokens);
+        assertEquals(expectedToken, tokens.getAccessToken());
+        assertEquals("refresh.token", tokens.getRefreshToken());
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userDetailsService, times(1)).loadUserByUsername(username);
         verify(jwtService, times(1)).generateToken(testUserDetails);
+        // Principal comes from the authentication step, no second lookup
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should run only hashing on the hashing pool and the database work afterwards")
+    void loginAndRegister_persistenceOffHashingPool() {
+        // Given: beide Executoren sammeln ihre Aufgaben, so ist sichtbar, wo was läuft
+        List<Runnable> hashingTasks = new ArrayList<>();
+        List<Runnable> ioTasks = new ArrayList<>();
+        PasswordHashingService passwordHashing = new PasswordHashingService(
+                passwordEncoder, hashingTasks::add, new SimpleMeterRegistry().counter("rejected"));
+        authService = new AuthService(authenticationManager, jwtService, userRepository, passwordHashing, loginRateLimiter, refreshTokenService, ioTasks::add);
+
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated(testUserDetails, null, List.of()));
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+        when(refreshTokenService.issue(1L)).thenReturn("refresh.token");
+
+        // When
+        CompletableFuture<AuthTokens> login = authService.login("testuser", "password123", "127.0.0.1");
+        CompletableFuture<AuthTokens> register = authService.register("testuser", "password123");
+        hashingTasks.forEach(Runnable::run);
+
+        // Then
+        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        verify(passwordEncoder).encode("password123");
+        verifyNoInteractions(userRepository, refreshTokenService);
+        assertEquals(2, ioTasks.size());
+
+        ioTasks.forEach(Runnable::run);
+        assertEquals("refresh.token", login.join().getRefreshToken());
+        assertEquals("refresh.token", register.join().getRefreshToken());
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -95,17 +142,61 @@ class AuthServiceTest {
                 .thenThrow(new BadCredentialsException("Bad credentials"));
 
         // When & Then
-        assertThrows(BadCredentialsException.class, () -> {
-            authService.login(username, password);
+        CompletionException exception = assertThrows(CompletionException.class, () -> {
+            authService.login(username, password, "127.0.0.1").join();
         });
+        assertInstanceOf(BadCredentialsException.class, exception.getCause());
 
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
         verify(jwtService, never()).generateToken(any());
     }
 
     @Test
-    @DisplayName("Should register new user successfully")
+    @DisplayName("Should reject throttled login before authenticating")
+    void login_throttled_throwsWithoutAuthenticating() {
+        // Given
+        doThrow(new LoginThrottledException(30)).when(loginRateLimiter).acquire("testuser", "127.0.0.1");
+
+        // When & Then
+        LoginThrottledException exception = assertThrows(LoginThrottledException.class, () -> {
+            authService.login("testuser", "password123", "127.0.0.1");
+        });
+
+        assertEquals(30, exception.getRetryAfterSeconds());
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    @DisplayName("Should issue new token pair for valid refresh token")
+    void refresh_validToken_rotates() {
+        // Given
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "testuser", null);
+        when(refreshTokenService.consume("old.refresh")).thenReturn(Optional.of(principal));
+        when(jwtService.generateToken(principal)).thenReturn("new.access");
+        when(refreshTokenService.issue(1L)).thenReturn("new.refresh");
+
+        // When
+        AuthTokens tokens = authService.refresh("old.refresh");
+
+        // Then
+        assertEquals("new.access", tokens.getAccessToken());
+        assertEquals("new.refresh", tokens.getRefreshToken());
+        verifyNoInteractions(authenticationManager, passwordEncoder, userRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown or reused refresh token")
+    void refresh_invalidToken_throwsBadCredentials() {
+        // Given
+        when(refreshTokenService.consume("used.refresh")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(BadCredentialsException.class, () -> authService.refresh("used.refresh"));
+        verify(refreshTokenService, never()).issue(any());
+    }
+
+    @Test
+    @DisplayName("Should register new user with a single insert")
     void register_newUser_success() {
         // Given
         String username = "newuser";
@@ -113,44 +204,63 @@ class AuthServiceTest {
         String encodedPassword = "encodedPassword123";
         String expectedToken = "jwt.token.here";
 
-        when(userRepository.existsByUsername(username)).thenReturn(false);
         when(passwordEncoder.encode(password)).thenReturn(encodedPassword);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(testUserDetails);
-        when(jwtService.generateToken(testUserDetails)).thenReturn(expectedToken);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+        when(jwtService.generateToken(any(AuthenticatedUser.class))).thenReturn(expectedToken);
 
         // When
-        String token = authService.register(username, password);
+        AuthTokens tokens = authService.register(username, password).join();
 
         // Then
-        assertNotNull(token);
-        assertEquals(expectedToken, token);
-        verify(userRepository, times(1)).existsByUsername(username);
+        assertNotNull(tokens);
+        assertEquals(expectedToken, tokens.getAccessToken());
+        verify(refreshTokenService, times(1)).issue(1L);
         verify(passwordEncoder, times(1)).encode(password);
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(userDetailsService, times(1)).loadUserByUsername(username);
-        verify(jwtService, times(1)).generateToken(testUserDetails);
+        verify(jwtService, times(1)).generateToken(argThat(user -> user.getId().equals(1L)));
+        // One round trip to the users table: no exists check, no reload
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verifyNoMoreInteractions(userRepository);
     }
 
     @Test
-    @DisplayName("Should throw exception when registering with existing username")
+    @DisplayName("Should map unique constraint violation to existing username")
     void register_existingUsername_throwsIllegalArgumentException() {
         // Given
         String username = "existinguser";
         String password = "password123";
 
-        when(userRepository.existsByUsername(username)).thenReturn(true);
+        when(passwordEncoder.encode(password)).thenReturn("encoded");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"), "uq_users_username")));
 
         // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            authService.register(username, password);
+        CompletionException exception = assertThrows(CompletionException.class, () -> {
+            authService.register(username, password).join();
         });
 
-        assertEquals("Username already exists", exception.getMessage());
-        verify(userRepository, times(1)).existsByUsername(username);
-        verify(passwordEncoder, never()).encode(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertEquals("Username already exists", exception.getCause().getMessage());
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verifyNoMoreInteractions(userRepository);
         verify(jwtService, never()).generateToken(any());
+        verify(refreshTokenService, never()).issue(any());
+    }
+
+    @Test
+    @DisplayName("Should not hide other integrity violations as username conflict")
+    void register_otherViolation_rethrows() {
+        // Given
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("null value", new SQLException("null value", "23502"), "users_password_not_null"));
+        when(passwordEncoder.encode("password")).thenReturn("encoded");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+
+        // When & Then
+        CompletionException exception = assertThrows(CompletionException.class, () -> {
+            authService.register("newuser", "password").join();
+        });
+
+        assertSame(violation, exception.getCause());
     }
 
     @Test
@@ -161,22 +271,20 @@ class AuthServiceTest {
         String rawPassword = "plainPassword";
         String encodedPassword = "$2a$10$encodedHash";
 
-        when(userRepository.existsByUsername(username)).thenReturn(false);
         when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             assertEquals(encodedPassword, savedUser.getPassword());
             return savedUser;
         });
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(testUserDetails);
-        when(jwtService.generateToken(testUserDetails)).thenReturn("token");
+        when(jwtService.generateToken(any(AuthenticatedUser.class))).thenReturn("token");
 
         // When
-        authService.register(username, rawPassword);
+        authService.register(username, rawPassword).join();
 
         // Then
         verify(passwordEncoder, times(1)).encode(rawPassword);
-        verify(userRepository, times(1)).save(argThat(user -> 
+        verify(userRepository, times(1)).saveAndFlush(argThat(user -> 
             user.getPassword().equals(encodedPassword)
         ));
     }
@@ -188,21 +296,19 @@ class AuthServiceTest {
         String username = "testuser123";
         String password = "password";
 
-        when(userRepository.existsByUsername(username)).thenReturn(false);
         when(passwordEncoder.encode(password)).thenReturn("encoded");
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             assertEquals(username, savedUser.getUsername());
             return savedUser;
         });
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(testUserDetails);
-        when(jwtService.generateToken(testUserDetails)).thenReturn("token");
+        when(jwtService.generateToken(any(AuthenticatedUser.class))).thenReturn("token");
 
         // When
-        authService.register(username, password);
+        authService.register(username, password).join();
 
         // Then
-        verify(userRepository, times(1)).save(argThat(user -> 
+        verify(userRepository, times(1)).saveAndFlush(argThat(user -> 
             user.getUsername().equals(username)
         ));
     }
@@ -0,0 +1,128 @@
+package com.example.backend.service;
+
+import com.example.backend.model.DbSecret;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
+import software.amazon.awssdk.services.secretsmanager.model.SecretsManagerException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AwsSecretsProvider Unit Tests")
+class AwsSecretsProviderTest {
+
+    private static final String DB_JSON = "{\"username\":\"app\",\"password\":\"pw1\",\"host\":\"db\",\"port\":\"5432\",\"dbInstanceIdentifier\":\"todo\"}";
+    private static final String ROTATED_DB_JSON = "{\"username\":\"app\",\"password\":\"pw2\",\"host\":\"db\",\"port\":\"5432\",\"dbInstanceIdentifier\":\"todo\"}";
+    private static final String JWT_JSON = "{\"jwtSecret\":\"secret\"}";
+
+    @Mock
+    private SecretsManagerClient client;
+
+    @BeforeEach
+    void setUp() {
+        stubSecret("todo/psql", DB_JSON);
+        stubSecret("todo/JwtKey", JWT_JSON);
+    }
+
+    @Test
+    @DisplayName("Should fetch both secrets once and serve them from the cache")
+    void get_afterStartup_cached() {
+        // Given
+        AwsSecretsProvider provider = provider(Duration.ofHours(1));
+
+        // When
+        DbSecret first = provider.getDbSecret();
+        DbSecret second = provider.getDbSecret();
+        String jwtSecret = provider.getJwtSecret().getJwtSecret();
+
+        // Then
+        assertSame(first, second);
+        assertEquals("jdbc:postgresql://db:5432/todo", first.toJdbcUrl());
+        assertEquals("secret", jwtSecret);
+        verify(client, times(2)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should notify listeners when database credentials rotate")
+    void refresh_rotatedSecret_notifiesListener() {
+        // Given
+        AwsSecretsProvider provider = provider(Duration.ofHours(1));
+        List<DbSecret> notified = new ArrayList<>();
+        provider.onDbSecretChange(notified::add);
+        stubSecret("todo/psql", ROTATED_DB_JSON);
+
+        // When
+        provider.refresh();
+
+        // Then
+        assertEquals(1, notified.size());
+        assertEquals("pw2", notified.get(0).getPassword());
+        assertEquals("pw2", provider.getDbSecret().getPassword());
+    }
+
+    @Test
+    @DisplayName("Should not notify listeners when nothing changed")
+    void refresh_unchangedSecret_noNotification() {
+        // Given
+        AwsSecretsProvider provider = provider(Duration.ofHours(1));
+        List<DbSecret> notified = new ArrayList<>();
+        provider.onDbSecretChange(notified::add);
+
+        // When
+        provider.refresh();
+
+        // Then
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the last value when a refresh fails")
+    void refresh_awsUnavailable_keepsLastValue() {
+        // Given
+        AwsSecretsProvider provider = provider(Duration.ofHours(1));
+        when(client.getSecretValue(any(GetSecretValueRequest.class)))
+                .thenThrow(SecretsManagerException.builder().message("unavailable").build());
+
+        // When
+        provider.refresh();
+
+        // Then
+        assertEquals("pw1", provider.getDbSecret().getPassword());
+    }
+
+    @Test
+    @DisplayName("Should refetch on read once the cached value outlived its TTL")
+    void get_expiredValue_refetches() {
+        // Given
+        AwsSecretsProvider provider = provider(Duration.ZERO);
+        stubSecret("todo/psql", ROTATED_DB_JSON);
+
+        // When
+        DbSecret secret = provider.getDbSecret();
+
+        // Then
+        assertEquals("pw2", secret.getPassword());
+    }
+
+    private AwsSecretsProvider provider(Duration ttl) {
+        return new AwsSecretsProvider(client, "todo/psql", "todo/JwtKey", ttl);
+    }
+
+    private void stubSecret(String name, String json) {
+        lenient().when(client.getSecretValue(argThat((GetSecretValueRequest request) -> request != null && name.equals(request.secretId()))))
+                .thenReturn(GetSecretValueResponse.builder().secretString(json).build());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoginRateLimiter Unit Tests")
+class LoginRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        // 3 attempts per user, 5 per IP, one token back every 20s per user
+        limiter = new LoginRateLimiter(meterRegistry, 3, 5, Duration.ofMinutes(1), clock::get);
+    }
+
+    @Test
+    @DisplayName("Should throttle username after its budget is used up")
+    void testThrottlesUsername() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("testuser", "10.0.0." + i);
+        }
+
+        // When & Then
+        LoginThrottledException exception = assertThrows(LoginThrottledException.class,
+                () -> limiter.acquire("TestUser", "10.0.0.9"));
+        assertEquals(20, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled").tag("key", "username").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should throttle client IP across usernames")
+    void testThrottlesIp() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("user" + i, "10.0.0.1");
+        }
+
+        // When & Then
+        assertThrows(LoginThrottledException.class, () -> limiter.acquire("other", "10.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should refill tokens over time")
+    void testRefill() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("testuser", "10.0.0.1");
+        }
+        assertThrows(LoginThrottledException.class, () -> limiter.acquire("testuser", "10.0.0.1"));
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        // Then
+        assertDoesNotThrow(() -> limiter.acquire("testuser", "10.0.0.1"));
+        assertThrows(LoginThrottledException.class, () -> limiter.acquire("testuser", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PasswordHashingService Unit Tests")
+class PasswordHashingServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService passwordHashing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One worker and one queue slot
+        passwordHashing = new PasswordHashingService(new BCryptPasswordEncoder(4), meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashing.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should encode password on the hashing pool")
+    void testEncode() {
+        // When
+        String hash = passwordHashing.encode("secret").join();
+
+        // Then
+        assertTrue(new BCryptPasswordEncoder().matches("secret", hash));
+    }
+
+    @Test
+    @DisplayName("Should reject work when the pool and queue are full")
+    void testRejectsWhenSaturated() {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        passwordHashing.submit(() -> await(release)); // occupies the worker
+        passwordHashing.submit(() -> await(release)); // occupies the queue
+
+        // When & Then
+        try {
+            assertThrows(PasswordHashingBusyException.class, () -> passwordHashing.encode("secret"));
+            assertEquals(1.0, meterRegistry.get("auth.password_hashing.rejected").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.backend.service;
+
+import com.example.backend.model.AuthenticatedUser;
+import com.example.backend.model.RefreshToken;
+import com.example.backend.model.User;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService Unit Tests")
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, Duration.ofDays(30));
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("Should store only the hash of an issued token")
+    void testIssueStoresHash() {
+        // Given
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        // When
+        String rawToken = refreshTokenService.issue(1L);
+
+        // Then
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+        assertNotEquals(rawToken, stored.getTokenHash());
+        assertEquals(64, stored.getTokenHash().length());
+        assertTrue(stored.getExpiresAt().isAfter(Instant.now().plus(Duration.ofDays(29))));
+    }
+
+    @Test
+    @DisplayName("Should consume a valid token exactly once")
+    void testConsumeValidToken() {
+        // Given
+        RefreshToken stored = new RefreshToken(5L, testUser, "hash", Instant.now().plusSeconds(60), Instant.now());
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(1);
+
+        // When
+        Optional<AuthenticatedUser> user = refreshTokenService.consume("raw");
+
+        // Then
+        assertTrue(user.isPresent());
+        assertEquals(1L, user.get().getId());
+        assertEquals("testuser", user.get().getUsername());
+    }
+
+    @Test
+    @DisplayName("Should reject a token already consumed concurrently")
+    void testConsumeLostRace() {
+        // Given
+        RefreshToken stored = new RefreshToken(5L, testUser, "hash", Instant.now().plusSeconds(60), Instant.now());
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(0);
+
+        // When & Then
+        assertTrue(refreshTokenService.consume("raw").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void testConsumeExpiredToken() {
+        // Given
+        RefreshToken stored = new RefreshToken(5L, testUser, "hash", Instant.now().minusSeconds(1), Instant.now());
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        // When & Then
+        assertTrue(refreshTokenService.consume("raw").isEmpty());
+        verify(refreshTokenRepository, never()).deleteByTokenHash(anyString());
+    }
+}
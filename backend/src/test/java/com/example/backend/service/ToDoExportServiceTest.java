@@ -0,0 +1,118 @@
+package com.example.backend.service;
+
+import com.example.backend.model.ToDo;
+import com.example.backend.repository.ToDoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ToDoExportService Unit Tests")
+class ToDoExportServiceTest {
+
+    @Mock
+    private ToDoRepository todoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private ToDoExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ToDoExportService(todoRepository, entityManager, jsonMapper);
+    }
+
+    private static ToDo todo(long id, String title, String description) {
+        ToDo todo = new ToDo();
+        todo.setId(id);
+        todo.setTitle(title);
+        todo.setDescription(description);
+        todo.setCompleted(false);
+        todo.setCreatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        todo.setUpdatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        todo.setVersion(0L);
+        return todo;
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void testExportNdjson() throws Exception {
+        // Given
+        when(todoRepository.streamByUserId(1L)).thenReturn(Stream.of(todo(1L, "a", null), todo(2L, "b", "line\nbreak")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = exportService.export(1L, ToDoFileFormat.NDJSON, out);
+
+        // Then
+        assertEquals(2, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        JsonNode second = jsonMapper.readTree(lines[1]);
+        assertEquals(2L, second.get("id").asLong());
+        assertEquals("line\nbreak", second.get("description").asString());
+        assertEquals("2026-01-02T03:04:05", second.get("createdAt").asString());
+        assertFalse(second.has("user"));
+    }
+
+    @Test
+    @DisplayName("Should write CSV with header and quote only where needed")
+    void testExportCsv() throws Exception {
+        // Given
+        when(todoRepository.streamByUserId(1L)).thenReturn(Stream.of(todo(7L, "plain", "a, \"b\"\nc")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(1L, ToDoFileFormat.CSV, out);
+
+        // Then
+        assertEquals(ToDoExportService.CSV_HEADER + "\r\n"
+                + "7,plain,\"a, \"\"b\"\"\nc\",false,,2026-01-02T03:04:05,2026-01-02T03:04:05\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should clear the persistence context every fetch block and close the cursor")
+    void testExportClearsPersistenceContext() throws Exception {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        int rows = ToDoExportService.CLEAR_INTERVAL * 2 + 1;
+        when(todoRepository.streamByUserId(1L)).thenReturn(
+                LongStream.rangeClosed(1, rows).mapToObj(id -> todo(id, "t" + id, null)).onClose(() -> closed.set(true)));
+
+        // When
+        long written = exportService.export(1L, ToDoFileFormat.NDJSON, new ByteArrayOutputStream());
+
+        // Then
+        assertEquals(rows, written);
+        verify(entityManager, times(2)).clear();
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown formats")
+    void testUnsupportedFormat() {
+        assertEquals(ToDoFileFormat.CSV, ToDoFileFormat.fromParameter("CSV"));
+        assertThrows(UnsupportedFormatException.class, () -> ToDoFileFormat.fromParameter("xml"));
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BatchItemResult;
+import com.example.backend.dto.BatchResponse;
+import com.example.backend.dto.ImportResponse;
+import com.example.backend.dto.ImportRowError;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.model.ToDo;
+import com.example.backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ToDoImportService Unit Tests")
+class ToDoImportServiceTest {
+
+    @Mock
+    private ToDoService todoService;
+
+    private ToDoImportService importService;
+    private User testUser;
+    private final List<ToDo> saved = new ArrayList<>();
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new ToDoImportService(todoService);
+        testUser = new User();
+        testUser.setId(1L);
+    }
+
+    // Wie createToDos: leere Titel scheitern, alles andere wird gespeichert
+    @SuppressWarnings("unchecked")
+    private void stubCreateToDos() {
+        when(todoService.createToDos(eq(testUser), anyList())).thenAnswer(invocation -> {
+            List<ToDo> items = invocation.getArgument(1);
+            chunkSizes.add(items.size());
+            List<BatchItemResult<ToDoResponse>> results = new ArrayList<>();
+            for (ToDo item : items) {
+                int index = results.size();
+                if (item.getTitle() == null) {
+                    results.add(BatchItemResult.failure(index, null, 400, "title must not be empty"));
+                } else {
+                    saved.add(item);
+                    results.add(BatchItemResult.success(index, (long) saved.size(), 201, ToDoResponse.from(item)));
+                }
+            }
+            return new BatchResponse<>(results);
+        });
+    }
+
+    private ImportResponse importText(ToDoFileFormat format, String body) {
+        return importService.importToDos(testUser, format, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows and report invalid ones by row number")
+    void testImportNdjson() {
+        // Given
+        stubCreateToDos();
+        String body = """
+                {"id":99,"title":"a","completed":true,"dueDate":"2026-03-01T09:30:00","version":4}
+                {"title":"b","dueDate":"2026-03-02"}
+                {"description":"no title"}
+                {"title":"c","completed":"maybe"}
+                [1,2]
+                """;
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.NDJSON, body);
+
+        // Then
+        assertEquals(5, response.getRows());
+        assertEquals(2, response.getImported());
+        assertEquals(3, response.getFailed());
+        assertTrue(response.isCompleted());
+        assertEquals(List.of(3L, 4L, 5L), response.getErrors().stream().map(ImportRowError::getRow).toList());
+        assertEquals("completed must be true or false", response.getErrors().get(1).getError());
+
+        assertEquals(true, saved.get(0).getCompleted());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 9, 30), saved.get(0).getDueDate());
+        assertEquals(LocalDateTime.of(2026, 3, 2, 0, 0), saved.get(1).getDueDate());
+        assertEquals(false, saved.get(1).getCompleted());
+        assertNull(saved.get(0).getId());
+        assertNull(saved.get(0).getVersion());
+    }
+
+    @Test
+    @DisplayName("Should accept a JSON array as well")
+    void testImportJsonArray() {
+        // Given
+        stubCreateToDos();
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.NDJSON, "[{\"title\":\"a\"},{\"title\":\"b\"}]");
+
+        // Then
+        assertEquals(2, response.getImported());
+        assertEquals(0, response.getFailed());
+    }
+
+    @Test
+    @DisplayName("Should save in chunks of the batch size")
+    void testImportChunks() {
+        // Given
+        stubCreateToDos();
+        StringBuilder body = new StringBuilder();
+        int rows = ToDoImportService.CHUNK_SIZE * 2 + 3;
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"title\":\"t").append(i).append("\"}\n");
+        }
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.NDJSON, body.toString());
+
+        // Then
+        assertEquals(rows, response.getImported());
+        assertEquals(List.of(ToDoImportService.CHUNK_SIZE, ToDoImportService.CHUNK_SIZE, 3), chunkSizes);
+    }
+
+    @Test
+    @DisplayName("Should cap the reported errors but count all of them")
+    void testImportCapsErrors() {
+        // Given
+        int rows = ToDoImportService.MAX_REPORTED_ERRORS + 20;
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.NDJSON, "{\"completed\":1}\n".repeat(rows));
+
+        // Then
+        assertEquals(rows, response.getFailed());
+        assertEquals(ToDoImportService.MAX_REPORTED_ERRORS, response.getErrors().size());
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    @DisplayName("Should keep rows before malformed JSON and stop there")
+    void testImportMalformedJson() {
+        // Given
+        stubCreateToDos();
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.NDJSON, "{\"title\":\"a\"}\n{\"title\": oops}\n{\"title\":\"c\"}\n");
+
+        // Then
+        assertFalse(response.isCompleted());
+        assertEquals(1, response.getImported());
+        assertEquals(2L, response.getErrors().get(0).getRow());
+        assertTrue(response.getErrors().get(0).getError().startsWith("Unreadable input"));
+    }
+
+    @Test
+    @DisplayName("Should reject an oversized NDJSON row with a row error instead of buffering it")
+    void testImportOversizedJsonRow() {
+        // Given
+        stubCreateToDos();
+        String huge = "x".repeat(ToDoImportService.MAX_FIELD_LENGTH + 1);
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.NDJSON,
+            "{\"title\":\"a\"}\n{\"title\":\"" + huge + "\"}\n{\"title\":\"c\"}\n");
+
+        // Then
+        assertFalse(response.isCompleted());
+        assertEquals(1, response.getImported());
+        assertEquals(2L, response.getErrors().get(0).getRow());
+        assertTrue(response.getErrors().get(0).getError().contains("exceeds the maximum"));
+    }
+
+    @Test
+    @DisplayName("Should skip unknown fields without reading them and stop at excessive nesting")
+    void testImportJsonUnknownAndNestedFields() {
+        // Given
+        stubCreateToDos();
+        String deep = "[".repeat(ToDoImportService.MAX_JSON_NESTING_DEPTH) + "]".repeat(ToDoImportService.MAX_JSON_NESTING_DEPTH);
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.NDJSON,
+            "{\"meta\":{\"tags\":[1,2,{\"x\":null}]},\"title\":\"a\"}\n"
+                + "{\"title\":{\"nested\":true}}\n"
+                + "{\"title\":\"b\",\"meta\":" + deep + "}\n");
+
+        // Then
+        assertEquals(1, response.getImported());
+        assertEquals("a", saved.get(0).getTitle());
+        assertEquals("title must not be an object or array", response.getErrors().get(0).getError());
+        assertFalse(response.isCompleted());
+        assertEquals(3L, response.getErrors().get(1).getRow());
+    }
+
+    @Test
+    @DisplayName("Should import CSV by header names, as written by the export")
+    void testImportCsv() {
+        // Given
+        stubCreateToDos();
+        String body = "﻿" + ToDoExportService.CSV_HEADER + "\r\n"
+                + "7,\"a, \"\"quoted\"\"\",\"two\nlines\",true,2026-03-01T09:30:00,2026-01-01T00:00:00,2026-01-01T00:00:00\r\n"
+                + "\r\n"
+                + "8,,,false,,,\r\n";
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.CSV, body);
+
+        // Then
+        assertEquals(2, response.getRows());
+        assertEquals(1, response.getImported());
+        assertEquals(2L, response.getErrors().get(0).getRow());
+        assertEquals("a, \"quoted\"", saved.get(0).getTitle());
+        assertEquals("two\nlines", saved.get(0).getDescription());
+        assertEquals(true, saved.get(0).getCompleted());
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV without title column")
+    void testImportCsvWithoutTitle() {
+        // When
+        ImportResponse response = importText(ToDoFileFormat.CSV, "name,done\r\nx,true\r\n");
+
+        // Then
+        assertFalse(response.isCompleted());
+        assertEquals(0L, response.getErrors().get(0).getRow());
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    @DisplayName("Should abort at a CSV record with too many fields instead of collecting them")
+    void testImportCsvTooManyFields() {
+        // Given
+        stubCreateToDos();
+        String separators = ",".repeat(1_000_000);
+
+        // When
+        ImportResponse response = importText(ToDoFileFormat.CSV, "title\r\na\r\n" + separators + "\r\nc\r\n");
+
+        // Then
+        assertFalse(response.isCompleted());
+        assertEquals(1, response.getImported());
+        assertEquals(2L, response.getErrors().get(0).getRow());
+        assertTrue(response.getErrors().get(0).getError().contains("more than " + ToDoImportService.MAX_CSV_FIELDS + " fields"));
+    }
+}
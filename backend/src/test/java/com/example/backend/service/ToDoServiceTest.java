@@ -1,23 +1,46 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.BatchResponse;
+import com.example.backend.dto.CursorPage;
+import com.example.backend.dto.DayCount;
+import com.example.backend.dto.ToDoPatch;
+import com.example.backend.dto.ToDoResponse;
+import com.example.backend.dto.ToDoSummary;
 import com.example.backend.model.ToDo;
 import com.example.backend.model.User;
 import com.example.backend.repository.ToDoRepository;
+import com.example.backend.repository.ToDoSearchHit;
+import com.example.backend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +50,15 @@ class ToDoServiceTest {
     @Mock
     private ToDoRepository todoRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ReadYourWritesTracker readYourWrites;
+
+    @Mock
+    private ToDoTitleIndex titleIndex;
+
     @InjectMocks
     private ToDoService todoService;
 
@@ -46,6 +78,7 @@ class ToDoServiceTest {
         testToDo.setCompleted(false);
         testToDo.setDueDate(LocalDateTime.now().plusDays(7));
         testToDo.setUser(testUser);
+        testToDo.setVersion(3L);
     }
 
     @Test
@@ -63,35 +96,88 @@ class ToDoServiceTest {
         assertEquals("Test Description", result.getDescription());
         assertFalse(result.getCompleted());
         verify(todoRepository, times(1)).save(testToDo);
+        verify(readYourWrites, times(1)).recordWrite();
+    }
+
+    @Test
+    @DisplayName("Should drop a client-supplied id and version on create")
+    void testCreateToDoIgnoresClientId() {
+        // Given
+        testToDo.setId(42L);
+        testToDo.setVersion(7L);
+        testToDo.setCompleted(null);
+        when(todoRepository.save(any(ToDo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        todoService.createToDo(testToDo);
+
+        // Then
+        ArgumentCaptor<ToDo> captor = ArgumentCaptor.forClass(ToDo.class);
+        verify(todoRepository).save(captor.capture());
+        assertNull(captor.getValue().getId());
+        assertNull(captor.getValue().getVersion());
+        assertFalse(captor.getValue().getCompleted());
+    }
+
+    @Test
+    @DisplayName("Should reject a missing or too long title on create like the batch does")
+    void testCreateToDoInvalidTitle() {
+        // Given
+        ToDo untitled = new ToDo();
+        untitled.setUser(testUser);
+        ToDo tooLong = new ToDo();
+        tooLong.setTitle("x".repeat(256));
+        tooLong.setUser(testUser);
+
+        // When & Then
+        InvalidToDoException missing = assertThrows(InvalidToDoException.class, () -> todoService.createToDo(untitled));
+        assertEquals("title must not be empty", missing.getMessage());
+        assertThrows(InvalidToDoException.class, () -> todoService.createToDo(tooLong));
+        verify(todoRepository, never()).save(any(ToDo.class));
+        verifyNoInteractions(readYourWrites);
     }
 
     @Test
-    @DisplayName("Should get ToDo by ID successfully")
+    @DisplayName("Should not open a read-your-writes window for reads")
+    void testGetToDoDoesNotRecordWrite() {
+        // Given
+        when(todoRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(ToDoResponse.from(testToDo)));
+
+        // When
+        todoService.getToDo(1L, 1L);
+
+        // Then
+        verifyNoInteractions(readYourWrites);
+    }
+
+    @Test
+    @DisplayName("Should get ToDo by ID and owner successfully")
     void testGetToDo() {
         // Given
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testToDo));
+        when(todoRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(ToDoResponse.from(testToDo)));
 
         // When
-        Optional<ToDo> result = todoService.getToDo(1L);
+        Optional<ToDoResponse> result = todoService.getToDo(1L, 1L);
 
         // Then
         assertTrue(result.isPresent());
         assertEquals("Test ToDo", result.get().getTitle());
-        verify(todoRepository, times(1)).findById(1L);
+        verify(todoRepository, times(1)).findResponseByIdAndUserId(1L, 1L);
+        verify(todoRepository, never()).findById(any());
     }
 
     @Test
-    @DisplayName("Should return empty when ToDo not found")
+    @DisplayName("Should return empty when ToDo not found or owned by another user")
     void testGetToDoNotFound() {
         // Given
-        when(todoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(todoRepository.findResponseByIdAndUserId(999L, 1L)).thenReturn(Optional.empty());
 
         // When
-        Optional<ToDo> result = todoService.getToDo(999L);
+        Optional<ToDoResponse> result = todoService.getToDo(999L, 1L);
 
         // Then
         assertFalse(result.isPresent());
-        verify(todoRepository, times(1)).findById(999L);
+        verify(todoRepository, times(1)).findResponseByIdAndUserId(999L, 1L);
     }
 
     @Test
@@ -121,20 +207,20 @@ class ToDoServiceTest {
     void testGetCompletedToDosForUser() {
         // Given
         testToDo.setCompleted(true);
-        List<ToDo> completedTodos = Arrays.asList(testToDo);
-        when(todoRepository.findByUserAndCompleted(testUser, true)).thenReturn(completedTodos);
+        List<ToDoResponse> completedTodos = Arrays.asList(ToDoResponse.from(testToDo));
+        when(todoRepository.findResponsesByUserAndCompleted(testUser, true)).thenReturn(completedTodos);
 
         // When
-        List<ToDo> result = todoService.getCompletedToDosForUser(testUser, true);
+        List<ToDoResponse> result = todoService.getCompletedToDosForUser(testUser, true);
 
         // Then
         assertEquals(1, result.size());
         assertTrue(result.get(0).getCompleted());
-        verify(todoRepository, times(1)).findByUserAndCompleted(testUser, true);
+        verify(todoRepository, times(1)).findResponsesByUserAndCompleted(testUser, true);
     }
 
     @Test
-    @DisplayName("Should update ToDo successfully")
+    @DisplayName("Should update ToDo with a single scoped statement")
     void testUpdateToDo() {
         // Given
         ToDo updatedToDo = new ToDo();
@@ -143,50 +229,176 @@ class ToDoServiceTest {
         updatedToDo.setCompleted(true);
         updatedToDo.setDueDate(LocalDateTime.now().plusDays(14));
 
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testToDo));
-        when(todoRepository.save(any(ToDo.class))).thenReturn(testToDo);
+        when(todoRepository.updateByIdAndUserId(1L, 1L, null, updatedToDo))
+            .thenReturn(Optional.of(new ToDoResponse(1L, "Updated Title", "Updated Description", true,
+                updatedToDo.getDueDate(), null, null, 0L)));
 
         // When
-        ToDo result = todoService.updateToDo(1L, updatedToDo);
+        ToDoResponse result = todoService.updateToDo(1L, 1L, null, updatedToDo);
 
         // Then
         assertNotNull(result);
         assertEquals("Updated Title", result.getTitle());
         assertEquals("Updated Description", result.getDescription());
         assertTrue(result.getCompleted());
-        verify(todoRepository, times(1)).findById(1L);
-        verify(todoRepository, times(1)).save(any(ToDo.class));
+        verify(todoRepository, never()).findById(any());
+        verify(todoRepository, never()).save(any(ToDo.class));
+        verify(readYourWrites, times(1)).recordWrite();
+    }
+
+    @Test
+    @DisplayName("Should reject a PUT without title or with null completed before any UPDATE")
+    void testUpdateToDoInvalid() {
+        // Given
+        ToDo untitled = new ToDo();
+        untitled.setCompleted(true);
+        ToDo noCompleted = new ToDo();
+        noCompleted.setTitle("Updated Title");
+        noCompleted.setCompleted(null);
+
+        // When & Then
+        assertThrows(InvalidToDoException.class, () -> todoService.updateToDo(1L, 1L, null, untitled));
+        InvalidToDoException e = assertThrows(InvalidToDoException.class, () -> todoService.updateToDo(1L, 1L, null, noCompleted));
+        assertEquals("completed must not be null", e.getMessage());
+        verifyNoInteractions(todoRepository, readYourWrites);
     }
 
     @Test
-    @DisplayName("Should throw exception when updating non-existent ToDo")
+    @DisplayName("Should throw exception when updating non-existent or foreign ToDo")
     void testUpdateToDoNotFound() {
         // Given
         ToDo updatedToDo = new ToDo();
         updatedToDo.setTitle("Updated Title");
-        when(todoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(todoRepository.updateByIdAndUserId(999L, 1L, null, updatedToDo)).thenReturn(Optional.empty());
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            todoService.updateToDo(999L, updatedToDo);
+        ToDoNotFoundException exception = assertThrows(ToDoNotFoundException.class, () -> {
+            todoService.updateToDo(999L, 1L, null, updatedToDo);
         });
 
         assertEquals("ToDo not found with id: 999", exception.getMessage());
-        verify(todoRepository, times(1)).findById(999L);
         verify(todoRepository, never()).save(any(ToDo.class));
     }
 
+    @Test
+    @DisplayName("Should patch only the supplied fields")
+    void testPatchToDo() {
+        // Given
+        ToDoPatch patch = new ToDoPatch();
+        patch.setCompleted(true);
+        when(todoRepository.patchByIdAndUserId(1L, 1L, null, patch))
+            .thenReturn(Optional.of(new ToDoResponse(1L, "Test ToDo", "Test Description", true, null, null, null, 0L)));
+
+        // When
+        ToDoResponse result = todoService.patchToDo(1L, 1L, null, patch);
+
+        // Then
+        assertTrue(result.getCompleted());
+        assertEquals("Test ToDo", result.getTitle());
+        assertTrue(patch.has(ToDoPatch.Field.COMPLETED));
+        assertFalse(patch.has(ToDoPatch.Field.TITLE));
+        verify(todoRepository, never()).findById(any());
+        verify(readYourWrites, times(1)).recordWrite();
+        verifyNoInteractions(titleIndex);
+    }
+
+    @Test
+    @DisplayName("Should treat an explicit null as clearing a nullable field")
+    void testPatchToDoClearsDueDate() {
+        // Given
+        ToDoPatch patch = new ToDoPatch();
+        patch.setDueDate(null);
+        when(todoRepository.patchByIdAndUserId(1L, 1L, null, patch))
+            .thenReturn(Optional.of(new ToDoResponse(1L, "Test ToDo", null, false, null, null, null, 0L)));
+
+        // When
+        todoService.patchToDo(1L, 1L, null, patch);
+
+        // Then
+        assertTrue(patch.has(ToDoPatch.Field.DUE_DATE));
+        verify(todoRepository, times(1)).patchByIdAndUserId(1L, 1L, null, patch);
+    }
+
+    @Test
+    @DisplayName("Should not write for an empty patch")
+    void testPatchToDoEmpty() {
+        // Given
+        when(todoRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(ToDoResponse.from(testToDo)));
+
+        // When
+        ToDoResponse result = todoService.patchToDo(1L, 1L, null, new ToDoPatch());
+
+        // Then
+        assertEquals("Test ToDo", result.getTitle());
+        verify(todoRepository, never()).patchByIdAndUserId(anyLong(), anyLong(), any(), any());
+        verifyNoInteractions(readYourWrites);
+    }
+
+    @Test
+    @DisplayName("Should reject a patch that clears a required field")
+    void testPatchToDoInvalid() {
+        // Given
+        ToDoPatch blankTitle = new ToDoPatch();
+        blankTitle.setTitle(" ");
+        ToDoPatch nullCompleted = new ToDoPatch();
+        nullCompleted.setCompleted(null);
+
+        // When & Then
+        assertThrows(InvalidPatchException.class, () -> todoService.patchToDo(1L, 1L, null, blankTitle));
+        assertThrows(InvalidPatchException.class, () -> todoService.patchToDo(1L, 1L, null, nullCompleted));
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a patched title longer than 255 characters")
+    void testPatchToDoTitleTooLong() {
+        // Given
+        ToDoPatch longTitle = new ToDoPatch();
+        longTitle.setTitle("a".repeat(256));
+
+        // When
+        InvalidPatchException exception = assertThrows(InvalidPatchException.class,
+            () -> todoService.patchToDo(1L, 1L, null, longTitle));
+
+        // Then
+        assertEquals("title must be at most 255 characters", exception.getMessage());
+        verifyNoInteractions(todoRepository, readYourWrites);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when patching non-existent or foreign ToDo")
+    void testPatchToDoNotFound() {
+        // Given
+        ToDoPatch patch = new ToDoPatch();
+        patch.setTitle("New");
+        when(todoRepository.patchByIdAndUserId(1L, 2L, null, patch)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ToDoNotFoundException.class, () -> todoService.patchToDo(1L, 2L, null, patch));
+    }
+
     @Test
     @DisplayName("Should delete ToDo successfully")
     void testDeleteToDo() {
         // Given
-        doNothing().when(todoRepository).deleteById(1L);
+        when(todoRepository.deleteByIdAndUserId(1L, 1L, null)).thenReturn(1);
 
         // When
-        todoService.deleteToDo(1L);
+        todoService.deleteToDo(1L, 1L, null);
 
         // Then
-        verify(todoRepository, times(1)).deleteById(1L);
+        verify(todoRepository, times(1)).deleteByIdAndUserId(1L, 1L, null);
+        verify(todoRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when deleting non-existent or foreign ToDo")
+    void testDeleteToDoNotFound() {
+        // Given
+        when(todoRepository.deleteByIdAndUserId(1L, 2L, null)).thenReturn(0);
+
+        // When & Then
+        assertThrows(ToDoNotFoundException.class, () -> todoService.deleteToDo(1L, 2L, null));
     }
 
     @Test
@@ -213,17 +425,506 @@ class ToDoServiceTest {
         updatedToDo.setCompleted(false);
         updatedToDo.setDueDate(null);
 
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testToDo));
-        when(todoRepository.save(any(ToDo.class))).thenReturn(testToDo);
+        when(todoRepository.updateByIdAndUserId(1L, 1L, null, updatedToDo))
+            .thenReturn(Optional.of(new ToDoResponse(1L, "New Title", null, false, null, null, null, 0L)));
 
         // When
-        ToDo result = todoService.updateToDo(1L, updatedToDo);
+        ToDoResponse result = todoService.updateToDo(1L, 1L, null, updatedToDo);
 
         // Then
         assertNotNull(result);
         assertEquals("New Title", result.getTitle());
         assertNull(result.getDescription());
         assertNull(result.getDueDate());
-        verify(todoRepository, times(1)).save(any(ToDo.class));
+        verify(todoRepository, times(1)).updateByIdAndUserId(1L, 1L, null, updatedToDo);
+    }
+
+    @Test
+    @DisplayName("Should page through projections instead of entities")
+    void testGetToDosForUserPaged() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(todoRepository.findResponsesByUser(testUser, pageable))
+                .thenReturn(new PageImpl<>(List.of(ToDoResponse.from(testToDo))));
+
+        // When
+        Page<ToDoResponse> page = todoService.getToDosForUserPaged(testUser, pageable);
+
+        // Then
+        assertEquals("Test ToDo", page.getContent().get(0).getTitle());
+        verify(todoRepository, never()).findByUser(any(User.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should return a next cursor and skip the count by default")
+    void testGetToDosForUserAfterFirstPage() {
+        // Given
+        ToDoResponse second = new ToDoResponse(2L, "Second", null, false, null, null, null, 0L);
+        ToDoResponse third = new ToDoResponse(3L, "Third", null, false, null, null, null, 0L);
+        when(todoRepository.findResponses(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(Arrays.asList(ToDoResponse.from(testToDo), second, third));
+
+        // When
+        CursorPage<ToDoResponse> page = todoService.getToDosForUserAfter(testUser, ToDoSortKey.DUE_DATE, Sort.Direction.ASC, "", 2, false);
+
+        // Then
+        assertEquals(2, page.getContent().size());
+        assertNull(page.getTotalElements());
+        ToDoCursor next = ToDoCursor.decode(page.getNext());
+        assertEquals(ToDoSortKey.DUE_DATE, next.key());
+        assertEquals(Sort.Direction.ASC, next.direction());
+        assertEquals(2L, next.id());
+        assertNull(next.value());
+        verify(todoRepository, never()).countByUser(any());
+    }
+
+    @Test
+    @DisplayName("Should end without cursor on the last page and count on request")
+    void testGetToDosForUserAfterLastPageWithCount() {
+        // Given
+        String cursor = ToDoCursor.after(ToDoResponse.from(testToDo), ToDoSortKey.DUE_DATE, Sort.Direction.DESC).encode();
+        when(todoRepository.findResponses(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(ToDoResponse.from(testToDo)));
+        when(todoRepository.countByUser(testUser)).thenReturn(11L);
+
+        // When
+        CursorPage<ToDoResponse> page = todoService.getToDosForUserAfter(testUser, ToDoSortKey.ID, Sort.Direction.ASC, cursor, 10, true);
+
+        // Then
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNext());
+        assertEquals(11L, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Should continue into the NULL block when the seek on a nullable key runs out")
+    void testGetToDosForUserAfterContinuesIntoNullBlock() {
+        // Given
+        ToDoResponse last = new ToDoResponse(5L, "Last dated", null, false, LocalDateTime.of(2026, 10, 1, 9, 0), null, null, 0L);
+        String cursor = ToDoCursor.after(last, ToDoSortKey.DUE_DATE, Sort.Direction.ASC).encode();
+        ToDoResponse dated = new ToDoResponse(6L, "Dated", null, false, LocalDateTime.of(2026, 10, 2, 9, 0), null, null, 0L);
+        ToDoResponse undated1 = new ToDoResponse(1L, "Undated", null, false, null, null, null, 0L);
+        ToDoResponse undated2 = new ToDoResponse(2L, "Undated", null, false, null, null, null, 0L);
+        when(todoRepository.findResponses(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(dated), List.of(undated1, undated2));
+
+        // When
+        CursorPage<ToDoResponse> page = todoService.getToDosForUserAfter(testUser, ToDoSortKey.ID, Sort.Direction.DESC, cursor, 2, false);
+
+        // Then: erst der Seek auf due_date mit 3 Zeilen Limit, dann der NULL-Block mit dem Rest
+        assertEquals(List.of(dated, undated1), page.getContent());
+        assertNotNull(page.getNext());
+        InOrder order = inOrder(todoRepository);
+        order.verify(todoRepository).findResponses(any(Specification.class), any(Sort.class), eq(3));
+        order.verify(todoRepository).findResponses(any(Specification.class), any(Sort.class), eq(2));
+    }
+
+    @Test
+    @DisplayName("Should not query the NULL block when the seek fills the page")
+    void testGetToDosForUserAfterSeekFillsPage() {
+        // Given
+        ToDoResponse last = new ToDoResponse(5L, "Last dated", null, false, LocalDateTime.of(2026, 10, 1, 9, 0), null, null, 0L);
+        String cursor = ToDoCursor.after(last, ToDoSortKey.DUE_DATE, Sort.Direction.ASC).encode();
+        when(todoRepository.findResponses(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(ToDoResponse.from(testToDo), ToDoResponse.from(testToDo), ToDoResponse.from(testToDo)));
+
+        // When
+        CursorPage<ToDoResponse> page = todoService.getToDosForUserAfter(testUser, ToDoSortKey.ID, Sort.Direction.DESC, cursor, 2, false);
+
+        // Then
+        assertEquals(2, page.getContent().size());
+        verify(todoRepository, times(1)).findResponses(any(Specification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should round-trip sort values through the cursor")
+    void testToDoCursorRoundTrip() {
+        // Given
+        ToDoResponse row = ToDoResponse.from(testToDo);
+
+        // When
+        ToDoCursor byCompleted = ToDoCursor.decode(ToDoCursor.after(row, ToDoSortKey.COMPLETED, Sort.Direction.ASC).encode());
+        ToDoCursor byDueDate = ToDoCursor.decode(ToDoCursor.after(row, ToDoSortKey.DUE_DATE, Sort.Direction.DESC).encode());
+
+        // Then
+        assertEquals(false, byCompleted.typedValue());
+        assertEquals(testToDo.getDueDate(), byDueDate.typedValue());
+        assertEquals(1L, byDueDate.id());
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered cursor")
+    void testGetToDosForUserAfterInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () ->
+                todoService.getToDosForUserAfter(testUser, ToDoSortKey.ID, Sort.Direction.ASC, "not-a-cursor", 10, false));
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("Should create valid batch items in one saveAll and report invalid ones")
+    void testCreateToDosBatch() {
+        // Given
+        ToDo valid = new ToDo();
+        valid.setId(42L);
+        valid.setTitle("Bulk");
+        valid.setCompleted(null);
+        ToDo invalid = new ToDo();
+        invalid.setTitle(" ");
+        when(todoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ToDo> saved = invocation.getArgument(0);
+            saved.forEach(todo -> todo.setId(100L));
+            return saved;
+        });
+
+        // When
+        BatchResponse<ToDoResponse> response = todoService.createToDos(testUser, Arrays.asList(invalid, valid));
+
+        // Then
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals(400, response.getResults().get(0).getStatus());
+        assertEquals(201, response.getResults().get(1).getStatus());
+        assertEquals(1, response.getResults().get(1).getIndex());
+        assertEquals(100L, response.getResults().get(1).getId());
+        assertFalse(valid.getCompleted());
+        assertSame(testUser, valid.getUser());
+        verify(todoRepository, times(1)).saveAll(List.of(valid));
+        verify(todoRepository, never()).save(any(ToDo.class));
+    }
+
+    @Test
+    @DisplayName("Should update owned batch items and report missing ones with 404")
+    void testUpdateToDosBatch() {
+        // Given
+        ToDo change = new ToDo();
+        change.setId(1L);
+        change.setTitle("Changed");
+        change.setCompleted(true);
+        ToDo foreign = new ToDo();
+        foreign.setId(2L);
+        foreign.setTitle("Foreign");
+        foreign.setCompleted(false);
+        ToDo withoutId = new ToDo();
+        withoutId.setTitle("No id");
+        withoutId.setCompleted(false);
+        when(todoRepository.findAllByIdInAndUserId(Set.of(1L, 2L), 1L)).thenReturn(List.of(testToDo));
+
+        // When
+        BatchResponse<ToDoResponse> response = todoService.updateToDos(1L, List.of(change, foreign, withoutId));
+
+        // Then
+        assertEquals(200, response.getResults().get(0).getStatus());
+        assertEquals("Changed", response.getResults().get(0).getBody().getTitle());
+        assertEquals(404, response.getResults().get(1).getStatus());
+        assertEquals(400, response.getResults().get(2).getStatus());
+        assertEquals("Changed", testToDo.getTitle());
+        assertTrue(testToDo.getCompleted());
+        verify(todoRepository, times(1)).flush();
+        verify(todoRepository, never()).save(any(ToDo.class));
+    }
+
+    @Test
+    @DisplayName("Should delete a batch in one statement and report ids that were not deleted")
+    void testDeleteToDosBatch() {
+        // Given
+        when(todoRepository.deleteAllByIdInAndUserId(Set.of(1L, 9L), 1L)).thenReturn(List.of(1L));
+
+        // When
+        BatchResponse<ToDoResponse> response = todoService.deleteToDos(1L, List.of(1L, 9L));
+
+        // Then
+        assertEquals(204, response.getResults().get(0).getStatus());
+        assertEquals(404, response.getResults().get(1).getStatus());
+        assertEquals(9L, response.getResults().get(1).getId());
+        verify(readYourWrites, times(1)).recordWrite();
+    }
+
+    @Test
+    @DisplayName("Should fetch a batch in one query, in request order")
+    void testGetToDosBatch() {
+        // Given
+        when(todoRepository.findResponsesByIdInAndUserId(Set.of(1L, 9L), 1L)).thenReturn(List.of(ToDoResponse.from(testToDo)));
+
+        // When
+        BatchResponse<ToDoResponse> response = todoService.getToDos(1L, List.of(9L, 1L));
+
+        // Then
+        assertEquals(404, response.getResults().get(0).getStatus());
+        assertEquals(200, response.getResults().get(1).getStatus());
+        assertEquals("Test ToDo", response.getResults().get(1).getBody().getTitle());
+        verifyNoInteractions(readYourWrites);
+    }
+
+    @Test
+    @DisplayName("Should reject empty and oversized batches before touching the database")
+    void testBatchSizeLimits() {
+        List<Long> tooMany = LongStream.rangeClosed(1, ToDoService.MAX_BATCH_SIZE + 1).boxed().toList();
+
+        assertThrows(InvalidBatchException.class, () -> todoService.getToDos(1L, List.of()));
+        assertThrows(InvalidBatchException.class, () -> todoService.deleteToDos(1L, tooMany));
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("Should complete all open ToDos with one scoped update")
+    void testCompleteAll() {
+        // Given
+        when(todoRepository.completeAllByUserId(eq(1L), any(LocalDateTime.class))).thenReturn(7);
+
+        // When
+        int affected = todoService.completeAll(1L);
+
+        // Then
+        assertEquals(7, affected);
+        verify(todoRepository, never()).findByUser(any());
+        verify(readYourWrites, times(1)).recordWrite();
+    }
+
+    @Test
+    @DisplayName("Should delete all completed ToDos with one scoped delete")
+    void testDeleteCompleted() {
+        // Given
+        when(todoRepository.deleteCompletedByUserId(1L)).thenReturn(3);
+
+        // When & Then
+        assertEquals(3, todoService.deleteCompleted(1L));
+        verify(titleIndex, times(1)).invalidate(1L);
+    }
+
+    @Test
+    @DisplayName("Should shift overdue due dates and reject out-of-range days")
+    void testShiftOverdue() {
+        // Given
+        when(todoRepository.shiftOverdueByUserId(eq(1L), eq(7), any(LocalDateTime.class))).thenReturn(2);
+
+        // When & Then
+        assertEquals(2, todoService.shiftOverdue(1L, 7));
+        assertThrows(InvalidBulkActionException.class, () -> todoService.shiftOverdue(1L, 0));
+        assertThrows(InvalidBulkActionException.class, () -> todoService.shiftOverdue(1L, ToDoService.MAX_SHIFT_DAYS + 1));
+        verify(todoRepository, times(1)).shiftOverdueByUserId(anyLong(), anyInt(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should raise the list version on a successful write only")
+    void testListVersionRaisedOnWrite() {
+        // Given
+        ToDo updatedToDo = new ToDo();
+        updatedToDo.setTitle("Updated Title");
+        updatedToDo.setCompleted(false);
+        when(todoRepository.updateByIdAndUserId(1L, 1L, null, updatedToDo))
+            .thenReturn(Optional.of(ToDoResponse.from(testToDo)));
+        when(todoRepository.deleteByIdAndUserId(2L, 1L, null)).thenReturn(0);
+
+        // When
+        todoService.updateToDo(1L, 1L, null, updatedToDo);
+        assertThrows(ToDoNotFoundException.class, () -> todoService.deleteToDo(2L, 1L, null));
+
+        // Then
+        verify(userRepository, times(1)).incrementTodosVersion(1L);
+    }
+
+    @Test
+    @DisplayName("Should query a date range as a half-open window of whole days")
+    void testGetToDosDueBetween() {
+        // Given
+        LocalDate from = LocalDate.of(2026, 10, 1);
+        LocalDate to = LocalDate.of(2026, 10, 31);
+        when(todoRepository.findSummariesDueBetween(1L, from.atStartOfDay(), LocalDate.of(2026, 11, 1).atStartOfDay()))
+            .thenReturn(List.of(new ToDoSummary(1L, "Test ToDo", false, LocalDateTime.of(2026, 10, 31, 23, 30))));
+        when(todoRepository.countDueByDay(1L, from.atStartOfDay(), LocalDate.of(2026, 11, 1).atStartOfDay()))
+            .thenReturn(List.of(new DayCount(LocalDate.of(2026, 10, 31), 1)));
+
+        // When
+        List<ToDoSummary> rows = todoService.getToDosDueBetween(1L, from, to);
+        List<DayCount> counts = todoService.countToDosDueByDay(1L, from, to);
+
+        // Then
+        assertEquals(1, rows.size());
+        assertEquals(1, counts.get(0).getCount());
+        verifyNoInteractions(readYourWrites);
+    }
+
+    @Test
+    @DisplayName("Should reject reversed and overly long ranges before touching the database")
+    void testGetToDosDueBetweenInvalid() {
+        LocalDate from = LocalDate.of(2026, 10, 1);
+
+        assertThrows(InvalidRangeException.class, () -> todoService.getToDosDueBetween(1L, from, from.minusDays(1)));
+        assertThrows(InvalidRangeException.class,
+            () -> todoService.countToDosDueByDay(1L, from, from.plusDays(ToDoService.MAX_RANGE_DAYS)));
+        assertDoesNotThrow(() -> todoService.getToDosDueBetween(1L, from, from));
+        verify(todoRepository, never()).countDueByDay(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep the title index current on writes that change titles")
+    void testTitleIndexUpdatedOnWrite() {
+        // Given
+        ToDoPatch patch = new ToDoPatch();
+        patch.setTitle("Renamed");
+        // Wie save: die neue Zeile bekommt ihre Id aus der Sequenz
+        when(todoRepository.save(any(ToDo.class))).thenAnswer(invocation -> {
+            ToDo saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        when(todoRepository.patchByIdAndUserId(1L, 1L, null, patch))
+            .thenReturn(Optional.of(new ToDoResponse(1L, "Renamed", null, false, null, null, null, 1L)));
+        when(todoRepository.deleteByIdAndUserId(1L, 1L, null)).thenReturn(1);
+
+        // When
+        todoService.createToDo(testToDo);
+        todoService.patchToDo(1L, 1L, null, patch);
+        todoService.deleteToDo(1L, 1L, null);
+
+        // Then
+        verify(titleIndex).put(1L, 1L, "Test ToDo");
+        verify(titleIndex).put(1L, 1L, "Renamed");
+        verify(titleIndex).remove(1L, List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should report a stale If-Match version as conflict, not as missing")
+    void testUpdateToDoVersionConflict() {
+        // Given
+        ToDo updatedToDo = new ToDo();
+        updatedToDo.setTitle("Updated Title");
+        updatedToDo.setCompleted(false);
+        when(todoRepository.updateByIdAndUserId(1L, 1L, 2L, updatedToDo)).thenReturn(Optional.empty());
+        when(todoRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(VersionConflictException.class, () -> todoService.updateToDo(1L, 1L, 2L, updatedToDo));
+        verify(userRepository, never()).incrementTodosVersion(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should report a missing ToDo as not found even with If-Match")
+    void testDeleteToDoWithVersionNotFound() {
+        // Given
+        when(todoRepository.deleteByIdAndUserId(9L, 1L, 3L)).thenReturn(0);
+        when(todoRepository.existsByIdAndUserId(9L, 1L)).thenReturn(false);
+
+        // When & Then
+        assertThrows(ToDoNotFoundException.class, () -> todoService.deleteToDo(9L, 1L, 3L));
+    }
+
+    @Test
+    @DisplayName("Should not look up existence when the unconditional write succeeds")
+    void testDeleteToDoWithMatchingVersion() {
+        // Given
+        when(todoRepository.deleteByIdAndUserId(1L, 1L, 3L)).thenReturn(1);
+
+        // When
+        todoService.deleteToDo(1L, 1L, 3L);
+
+        // Then
+        verify(todoRepository, never()).existsByIdAndUserId(anyLong(), anyLong());
+        verify(userRepository, times(1)).incrementTodosVersion(1L);
+    }
+
+    @Test
+    @DisplayName("Should check If-Match on an empty patch against the current version")
+    void testPatchToDoEmptyVersionConflict() {
+        // Given
+        when(todoRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(ToDoResponse.from(testToDo)));
+
+        // When & Then
+        assertEquals(3L, todoService.patchToDo(1L, 1L, 3L, new ToDoPatch()).getVersion());
+        assertThrows(VersionConflictException.class, () -> todoService.patchToDo(1L, 1L, 2L, new ToDoPatch()));
+    }
+
+    @Test
+    @DisplayName("Should tag a list with the version read before it, never a newer one")
+    void testReadList_versionNotAheadOfRows() {
+        // Given: das Replikat steht noch bei Version 5, die Liste kommt aus demselben Stand
+        List<ToDoResponse> rowsAtVersion5 = List.of(new ToDoResponse(1L, "alt", null, false, null, null, null, 0L));
+        when(userRepository.findTodosVersionById(1L)).thenReturn(Optional.of(5L));
+        when(todoRepository.findResponsesByUserAndCompleted(testUser, true)).thenReturn(rowsAtVersion5);
+
+        // When
+        VersionedList<List<ToDoResponse>> list = todoService.readList(1L, version -> false,
+                () -> todoRepository.findResponsesByUserAndCompleted(testUser, true));
+
+        // Then
+        assertEquals(5L, list.version());
+        assertSame(rowsAtVersion5, list.body());
+        InOrder order = inOrder(userRepository, todoRepository);
+        order.verify(userRepository).findTodosVersionById(1L);
+        order.verify(todoRepository).findResponsesByUserAndCompleted(testUser, true);
+    }
+
+    @Test
+    @DisplayName("Should skip the list query when the client's version is current")
+    void testReadList_current_skipsQuery() {
+        // Given
+        when(userRepository.findTodosVersionById(1L)).thenReturn(Optional.of(5L));
+
+        // When
+        VersionedList<List<ToDoResponse>> list = todoService.readList(1L, version -> version == 5L,
+                () -> todoRepository.findResponsesByUserAndCompleted(testUser, true));
+
+        // Then
+        assertTrue(list.notModified());
+        assertEquals(5L, list.version());
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("Should read the list version with a single lookup")
+    void testGetListVersion() {
+        // Given
+        when(userRepository.findTodosVersionById(1L)).thenReturn(Optional.of(12L));
+
+        // When & Then
+        assertEquals(12L, todoService.getListVersion(1L));
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("Should return ranked search hits with a cursor for the next page")
+    void testSearchToDos() {
+        // Given
+        ToDoResponse first = new ToDoResponse(9L, "einkaufen", null, false, null, null, null, 0L);
+        ToDoResponse second = new ToDoResponse(4L, "einkaufen gehen", null, false, null, null, null, 0L);
+        ToDoResponse third = new ToDoResponse(2L, "nicht einkaufen", null, false, null, null, null, 0L);
+        when(todoRepository.search(1L, "einkaufen", null, null, 3)).thenReturn(List.of(
+                new ToDoSearchHit(first, 0.1f), new ToDoSearchHit(second, 0.0607927f), new ToDoSearchHit(third, 0.05f)));
+
+        // When
+        CursorPage<ToDoResponse> page = todoService.searchToDos(1L, "einkaufen", null, 2);
+
+        // Then
+        assertEquals(List.of(9L, 4L), page.getContent().stream().map(ToDoResponse::getId).toList());
+        assertNotNull(page.getNext());
+        assertNull(page.getTotalElements());
+
+        // When: die nächste Seite sucht ab exakt diesem Rang und dieser ID weiter
+        when(todoRepository.search(1L, "einkaufen", 0.0607927f, 4L, 3)).thenReturn(List.of(new ToDoSearchHit(third, 0.05f)));
+        CursorPage<ToDoResponse> next = todoService.searchToDos(1L, "einkaufen", page.getNext(), 2);
+
+        // Then
+        assertEquals(List.of(2L), next.getContent().stream().map(ToDoResponse::getId).toList());
+        assertNull(next.getNext());
+    }
+
+    @Test
+    @DisplayName("Should not query for a blank search")
+    void testSearchToDosBlankQuery() {
+        // When
+        CursorPage<ToDoResponse> page = todoService.searchToDos(1L, "  ", null, 10);
+
+        // Then
+        assertTrue(page.getContent().isEmpty());
+        assertNull(page.getNext());
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed search cursor")
+    void testSearchToDosInvalidCursor() {
+        // When & Then
+        assertThrows(InvalidCursorException.class, () -> todoService.searchToDos(1L, "x", "bm9wZQ", 10));
+        verifyNoInteractions(todoRepository);
     }
 }
@@ -0,0 +1,183 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TitleSuggestion;
+import com.example.backend.repository.ToDoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ToDoTitleIndex Unit Tests")
+class ToDoTitleIndexTest {
+
+    @Mock
+    private ToDoRepository todoRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private ToDoTitleIndex titleIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        titleIndex = new ToDoTitleIndex(todoRepository, meterRegistry, 2, Duration.ofMinutes(10), clock::get);
+    }
+
+    private static List<String> titles(List<TitleSuggestion> suggestions) {
+        return suggestions.stream().map(TitleSuggestion::getTitle).toList();
+    }
+
+    @Test
+    @DisplayName("Should load a user's titles once and match any word case-insensitively")
+    void suggest_loadsLazilyAndMatchesWordStarts() {
+        // Given
+        when(todoRepository.findTitlesByUserId(1L)).thenReturn(List.of(
+            new TitleSuggestion(1L, "Milch einkaufen"),
+            new TitleSuggestion(2L, "Einkaufsliste schreiben"),
+            new TitleSuggestion(3L, "Steuererklärung")));
+
+        // When
+        List<TitleSuggestion> first = titleIndex.suggest(1L, "EIN", 10);
+        List<TitleSuggestion> second = titleIndex.suggest(1L, "milch ein", 10);
+
+        // Then
+        assertEquals(List.of("Milch einkaufen", "Einkaufsliste schreiben"), titles(first));
+        assertEquals(List.of("Milch einkaufen"), titles(second));
+        assertTrue(titleIndex.suggest(1L, "kaufen", 10).isEmpty());
+        assertTrue(titleIndex.suggest(1L, " ", 10).isEmpty());
+        verify(todoRepository, times(1)).findTitlesByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Should apply writes to a loaded index and ignore users that are not loaded")
+    void put_remove_updatesLoadedIndexOnly() {
+        // Given
+        when(todoRepository.findTitlesByUserId(1L)).thenReturn(List.of(new TitleSuggestion(1L, "Arzttermin")));
+        titleIndex.suggest(1L, "a", 10);
+
+        // When
+        titleIndex.putAll(1L, Map.of(2L, "Auto waschen"));
+        titleIndex.put(1L, 1L, "Zahnarzt");
+        titleIndex.put(2L, 5L, "Anderer User");
+
+        // Then
+        assertEquals(List.of("Auto waschen"), titles(titleIndex.suggest(1L, "a", 10)));
+        assertEquals(List.of("Zahnarzt"), titles(titleIndex.suggest(1L, "zahn", 10)));
+
+        titleIndex.remove(1L, List.of(2L));
+        assertTrue(titleIndex.suggest(1L, "auto", 10).isEmpty());
+        verify(todoRepository, never()).findTitlesByUserId(2L);
+    }
+
+    @Test
+    @DisplayName("Should check prefixes longer than the stored keys against the whole title")
+    void suggest_longPrefix_checksFullTitle() {
+        // Given
+        String base = "a".repeat(ToDoTitleIndex.KEY_LENGTH);
+        when(todoRepository.findTitlesByUserId(1L)).thenReturn(List.of(
+            new TitleSuggestion(1L, base + "bc"),
+            new TitleSuggestion(2L, base + "xy")));
+
+        // When & Then
+        assertEquals(List.of(base + "xy"), titles(titleIndex.suggest(1L, base + "x", 10)));
+        assertEquals(2, titleIndex.suggest(1L, base, 10).size());
+    }
+
+    @Test
+    @DisplayName("Should cap the number of suggestions")
+    void suggest_limit_capped() {
+        // Given
+        when(todoRepository.findTitlesByUserId(1L)).thenReturn(LongStream.rangeClosed(1, 30)
+            .mapToObj(id -> new TitleSuggestion(id, "Aufgabe " + id)).toList());
+
+        // When & Then
+        assertEquals(3, titleIndex.suggest(1L, "auf", 3).size());
+        assertEquals(ToDoTitleIndex.MAX_LIMIT, titleIndex.suggest(1L, "auf", 1000).size());
+    }
+
+    @Test
+    @DisplayName("Should report the memory of loaded indexes and reload after invalidation")
+    void memoryGauge_andInvalidate() {
+        // Given
+        when(todoRepository.findTitlesByUserId(1L)).thenReturn(List.of(new TitleSuggestion(1L, "Fenster putzen")));
+        assertEquals(0.0, meterRegistry.get("todos.autocomplete.memory").gauge().value());
+
+        // When
+        titleIndex.suggest(1L, "f", 10);
+        double loaded = meterRegistry.get("todos.autocomplete.memory").gauge().value();
+        titleIndex.put(1L, 2L, "Garten gießen");
+        double grown = meterRegistry.get("todos.autocomplete.memory").gauge().value();
+        titleIndex.invalidate(1L);
+
+        // Then
+        assertTrue(loaded > 0);
+        assertTrue(grown > loaded);
+        assertEquals(0.0, meterRegistry.get("todos.autocomplete.memory").gauge().value());
+        titleIndex.suggest(1L, "f", 10);
+        verify(todoRepository, times(2)).findTitlesByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Should reload an index after the ttl even if local writes kept updating it")
+    void suggest_afterTtl_reloads() {
+        // Given
+        when(todoRepository.findTitlesByUserId(1L))
+            .thenReturn(List.of(new TitleSuggestion(1L, "Alt")))
+            .thenReturn(List.of(new TitleSuggestion(1L, "Neu von anderer Instanz")));
+        titleIndex.suggest(1L, "a", 10);
+
+        // When
+        clock.addAndGet(Duration.ofMinutes(9).toNanos());
+        titleIndex.put(1L, 2L, "Lokal");
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        // Then
+        assertEquals(List.of("Neu von anderer Instanz"), titles(titleIndex.suggest(1L, "neu", 10)));
+        assertTrue(titleIndex.suggest(1L, "alt", 10).isEmpty());
+        verify(todoRepository, times(2)).findTitlesByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Should apply a write that commits while the index is loading")
+    void put_duringLoad_appliedAfterLoad() {
+        // Given: das SELECT liefert den Stand vor dem Schreibzugriff, der während des Ladens committet
+        when(todoRepository.findTitlesByUserId(1L)).thenAnswer(invocation -> {
+            titleIndex.put(1L, 2L, "Neuer Titel");
+            return List.of(new TitleSuggestion(1L, "Alter Titel"));
+        });
+
+        // When
+        titleIndex.suggest(1L, "titel", 10);
+
+        // Then
+        assertEquals(List.of("Alter Titel", "Neuer Titel"), titles(titleIndex.suggest(1L, "titel", 10)));
+        verify(todoRepository, times(1)).findTitlesByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Should not keep a failed load")
+    void suggest_failedLoad_retried() {
+        // Given
+        when(todoRepository.findTitlesByUserId(1L))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenReturn(List.of(new TitleSuggestion(1L, "Arzt")));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> titleIndex.suggest(1L, "a", 10));
+        assertEquals(List.of("Arzt"), titles(titleIndex.suggest(1L, "a", 10)));
+    }
+}
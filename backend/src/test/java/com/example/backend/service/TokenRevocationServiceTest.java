@@ -0,0 +1,117 @@
+package com.example.backend.service;
+
+import com.example.backend.model.RevokedToken;
+import com.example.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService Unit Tests")
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService revocationService;
+
+    private Instant inOneHour;
+
+    @BeforeEach
+    void setUp() {
+        inOneHour = Instant.now().plusSeconds(3600);
+    }
+
+    @Test
+    @DisplayName("Should report revoked token and persist it")
+    void testRevoke() {
+        // When
+        revocationService.revoke("jti-1", inOneHour);
+
+        // Then
+        assertTrue(revocationService.isRevoked("jti-1"));
+        assertFalse(revocationService.isRevoked("jti-2"));
+        verify(revokedTokenRepository, times(1)).save(new RevokedToken("jti-1", inOneHour));
+    }
+
+    @Test
+    @DisplayName("Should load persisted revocations on refresh")
+    void testRefreshLoadsFromTable() {
+        // Given
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class)))
+                .thenReturn(List.of(new RevokedToken("jti-db", inOneHour)));
+
+        // When
+        revocationService.refresh();
+
+        // Then
+        assertTrue(revocationService.isRevoked("jti-db"));
+        verify(revokedTokenRepository, times(1)).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should keep local revocations and drop expired ones on refresh")
+    void testRefreshKeepsLocalAndDropsExpired() {
+        // Given
+        revocationService.revoke("jti-local", inOneHour);
+        revocationService.revoke("jti-expired", Instant.now().minusSeconds(1));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of());
+
+        // When
+        revocationService.refresh();
+
+        // Then
+        assertTrue(revocationService.isRevoked("jti-local"));
+        assertFalse(revocationService.isRevoked("jti-expired"));
+    }
+
+    @Test
+    @DisplayName("Should not lose revocations made while a refresh swaps the snapshot")
+    void testRevokeDuringRefresh() throws Exception {
+        // Given: die Tabelle liefert nichts, nur die lokale Übernahme hält die Einträge
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of());
+        int revocations = 2_000;
+        AtomicBoolean revoking = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        try {
+            CompletableFuture<Void> refreshes = CompletableFuture.runAsync(() -> {
+                while (revoking.get()) {
+                    revocationService.refresh();
+                }
+            }, executor);
+            CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < revocations; i++) {
+                    revocationService.revoke("jti-" + i, inOneHour);
+                }
+            }, executor).get(30, TimeUnit.SECONDS);
+            revoking.set(false);
+            refreshes.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        for (int i = 0; i < revocations; i++) {
+            assertTrue(revocationService.isRevoked("jti-" + i), "jti-" + i);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTest {
+
+    private static Csv.RecordReader reader(String csv, int maxFieldLength) {
+        return reader(csv, maxFieldLength, 10, 100);
+    }
+
+    private static Csv.RecordReader reader(String csv, int maxFieldLength, int maxFields, int maxRecordLength) {
+        return new Csv.RecordReader(new BufferedReader(new StringReader(csv)), maxFieldLength, maxFields, maxRecordLength);
+    }
+
+    @Test
+    void field_quotesOnlyWhenNeeded() {
+        assertEquals("plain", Csv.field("plain"));
+        assertEquals("", Csv.field(null));
+        assertEquals("\"a,b\"", Csv.field("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", Csv.field("say \"hi\""));
+        assertEquals("\"two\nlines\"", Csv.field("two\nlines"));
+    }
+
+    @Test
+    void next_readsQuotedFieldsAcrossLines() throws IOException {
+        Csv.RecordReader reader = reader("a,\"b,\"\"c\"\"\nd\",\r\nx\ry\n", 100);
+
+        assertEquals(List.of("a", "b,\"c\"\nd", ""), reader.next());
+        assertEquals(List.of("x"), reader.next());
+        assertEquals(List.of("y"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_roundTripsWrittenFields() throws IOException {
+        String value = "x, \"y\"\r\nz";
+
+        assertEquals(List.of(value, "1"), reader(Csv.field(value) + ",1", 100).next());
+    }
+
+    @Test
+    void next_rejectsUnterminatedAndOversizedFields() {
+        assertThrows(IOException.class, () -> reader("\"open", 100).next());
+        assertThrows(IOException.class, () -> reader("abcdef", 5).next());
+    }
+
+    @Test
+    void next_rejectsRecordsWithTooManyFieldsOrCharacters() throws IOException {
+        assertEquals(3, reader(",,", 5, 3, 100).next().size());
+        assertThrows(IOException.class, () -> reader(",,,", 5, 3, 100).next());
+        assertThrows(IOException.class, () -> reader(",".repeat(1_000_000), 5, 3, 100).next());
+
+        assertEquals(List.of("abc", "d"), reader("abc,d", 5, 3, 5).next());
+        assertThrows(IOException.class, () -> reader("abc,de", 5, 3, 5).next());
+    }
+
+    @Test
+    void next_limitsApplyPerRecord() throws IOException {
+        Csv.RecordReader reader = reader("a,b\nc,d\n", 5, 2, 3);
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(List.of("c", "d"), reader.next());
+    }
+}
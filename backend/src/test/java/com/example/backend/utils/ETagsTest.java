@@ -0,0 +1,41 @@
+package com.example.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void forVersion_isStrongQuotedTag() {
+        assertEquals("\"7\"", ETags.forVersion(7L));
+    }
+
+    @Test
+    void forList_differsByUserVersionAndParams() {
+        String tag = ETags.forList(1L, 5L, "page", 0, 10);
+
+        assertEquals(tag, ETags.forList(1L, 5L, "page", 0, 10));
+        assertNotEquals(tag, ETags.forList(2L, 5L, "page", 0, 10));
+        assertNotEquals(tag, ETags.forList(1L, 6L, "page", 0, 10));
+        assertNotEquals(tag, ETags.forList(1L, 5L, "page", 1, 10));
+    }
+
+    @Test
+    void matchesAny_handlesListsWildcardAndWeakTags() {
+        assertTrue(ETags.matchesAny("\"1\", \"7\"", "\"7\""));
+        assertTrue(ETags.matchesAny("W/\"7\"", "\"7\""));
+        assertTrue(ETags.matchesAny("*", "\"7\""));
+        assertFalse(ETags.matchesAny("\"6\"", "\"7\""));
+        assertFalse(ETags.matchesAny(null, "\"7\""));
+    }
+
+    @Test
+    void expectedVersion_parsesStrongTagsOnly() {
+        assertEquals(7L, ETags.expectedVersion("\"7\""));
+        assertNull(ETags.expectedVersion(null));
+        assertNull(ETags.expectedVersion("*"));
+        assertEquals(ETags.UNMATCHABLE_VERSION, ETags.expectedVersion("W/\"7\""));
+        assertEquals(ETags.UNMATCHABLE_VERSION, ETags.expectedVersion("\"abc\""));
+    }
+}
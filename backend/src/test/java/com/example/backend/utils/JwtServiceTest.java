@@ -1,9 +1,9 @@
 package com.example.backend.utils;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +11,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.example.backend.model.AuthenticatedUser;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 
@@ -20,18 +25,14 @@ import static org.junit.jupiter.api.Assertions.*;
 class JwtServiceTest {
 
     private JwtService jwtService;
-    private UserDetails testUserDetails;
+    private AuthenticatedUser testUserDetails;
     private final String testSecret = "testSecretKeyThatIsLongEnoughForHS256AlgorithmToWork1234567890";
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService(testSecret);
+        jwtService = new JwtService(testSecret, Duration.ofMinutes(15));
         
-        testUserDetails = User.builder()
-                .username("testuser")
-                .password("password")
-                .authorities(Collections.emptyList())
-                .build();
+        testUserDetails = new AuthenticatedUser(1L, "testuser", "password");
     }
 
     @Test
@@ -53,7 +54,7 @@ class JwtServiceTest {
         String token = jwtService.generateToken(testUserDetails);
 
         // When
-        String username = jwtService.extractUsername(token);
+        String username = jwtService.verify(token).getUsername();
 
         // Then
         assertEquals("testuser", username);
@@ -66,10 +67,12 @@ class JwtServiceTest {
         String token = jwtService.generateToken(testUserDetails);
 
         // When
-        boolean isValid = jwtService.isTokenValid(token, testUserDetails);
+        VerifiedToken verified = jwtService.verify(token);
 
         // Then
-        assertTrue(isValid);
+        assertEquals(testUserDetails.getId(), verified.getUserId());
+        assertEquals(testUserDetails.getUsername(), verified.getUsername());
+        assertFalse(verified.isExpired());
     }
 
     @Test
@@ -85,10 +88,10 @@ class JwtServiceTest {
                 .build();
 
         // When
-        boolean isValid = jwtService.isTokenValid(token, differentUser);
+        VerifiedToken verified = jwtService.verify(token);
 
         // Then
-        assertFalse(isValid);
+        assertNotEquals(differentUser.getUsername(), verified.getUsername());
     }
 
     @Test
@@ -99,7 +102,7 @@ class JwtServiceTest {
 
         // When & Then
         assertThrows(MalformedJwtException.class, () -> {
-            jwtService.extractUsername(malformedToken);
+            jwtService.verify(malformedToken);
         });
     }
 
@@ -112,7 +115,7 @@ class JwtServiceTest {
 
         // When & Then
         assertThrows(SignatureException.class, () -> {
-            jwtService.extractUsername(tamperedToken);
+            jwtService.verify(tamperedToken);
         });
     }
 
@@ -132,24 +135,15 @@ class JwtServiceTest {
     @DisplayName("Should extract correct username from multiple tokens")
     void testMultipleTokens() {
         // Given
-        UserDetails user1 = User.builder()
-                .username("user1")
-                .password("pass")
-                .authorities(Collections.emptyList())
-                .build();
-        
-        UserDetails user2 = User.builder()
-                .username("user2")
-                .password("pass")
-                .authorities(Collections.emptyList())
-                .build();
+        AuthenticatedUser user1 = new AuthenticatedUser(1L, "user1", "pass");
+        AuthenticatedUser user2 = new AuthenticatedUser(2L, "user2", "pass");
 
         String token1 = jwtService.generateToken(user1);
         String token2 = jwtService.generateToken(user2);
 
         // When
-        String extractedUser1 = jwtService.extractUsername(token1);
-        String extractedUser2 = jwtService.extractUsername(token2);
+        String extractedUser1 = jwtService.verify(token1).getUsername();
+        String extractedUser2 = jwtService.verify(token2).getUsername();
 
         // Then
         assertEquals("user1", extractedUser1);
@@ -166,29 +160,29 @@ class JwtServiceTest {
         long afterGeneration = System.currentTimeMillis();
 
         // When
-        Date issuedAt = jwtService.extractClaim(token, Claims::getIssuedAt);
+        Instant issuedAt = jwtService.verify(token).getIssuedAt();
 
         // Then
         assertNotNull(issuedAt);
-        assertTrue(issuedAt.getTime() >= beforeGeneration - 1000); // Allow 1s tolerance
-        assertTrue(issuedAt.getTime() <= afterGeneration + 1000);
+        assertTrue(issuedAt.toEpochMilli() >= beforeGeneration - 1000); // Allow 1s tolerance
+        assertTrue(issuedAt.toEpochMilli() <= afterGeneration + 1000);
     }
 
     @Test
-    @DisplayName("Should set expiration to 24 hours from now")
+    @DisplayName("Should set expiration to 15 minutes from now")
     void testExpiration() {
         // Given
         long now = System.currentTimeMillis();
         String token = jwtService.generateToken(testUserDetails);
 
         // When
-        Date expiration = jwtService.extractClaim(token, Claims::getExpiration);
-        long expectedExpiration = now + (1000L * 60 * 60 * 24); // 24 hours
+        Instant expiration = jwtService.verify(token).getExpiresAt();
+        long expectedExpiration = now + (1000L * 60 * 15); // 15 minutes
 
         // Then
         assertNotNull(expiration);
         // Allow 5 second tolerance for test execution time
-        assertTrue(Math.abs(expiration.getTime() - expectedExpiration) < 5000);
+        assertTrue(Math.abs(expiration.toEpochMilli() - expectedExpiration) < 5000);
     }
 
     @Test
@@ -198,9 +192,88 @@ class JwtServiceTest {
         String token = jwtService.generateToken(testUserDetails);
 
         // When
-        boolean isValid = jwtService.isTokenValid(token, testUserDetails);
+        boolean expired = jwtService.verify(token).isExpired();
 
         // Then
-        assertTrue(isValid);
+        assertFalse(expired);
+    }
+
+    @Test
+    @DisplayName("Should build principal with user id from token")
+    void testVerifyBuildsPrincipal() {
+        // Given
+        String token = jwtService.generateToken(testUserDetails);
+
+        // When
+        AuthenticatedUser principal = jwtService.verify(token).toPrincipal();
+
+        // Then
+        assertNotNull(jwtService.verify(token).getTokenId());
+        assertEquals(1L, principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    @DisplayName("Should reuse verified claims for the same token")
+    void testVerifyCachesResult() {
+        // Given
+        String token = jwtService.generateToken(testUserDetails);
+
+        // When
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        // Then
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Should reject token without user id claim")
+    void testVerifyWithoutUserId() {
+        // Given
+        String legacyToken = Jwts.builder()
+                .setId("jti-1")
+                .setSubject("testuser")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // When & Then
+        assertThrows(MalformedJwtException.class, () -> jwtService.verify(legacyToken));
+    }
+
+    @Test
+    @DisplayName("Should reject expired token")
+    void testVerifyExpiredToken() {
+        // Given
+        String expiredToken = Jwts.builder()
+                .setId("jti-1")
+                .setSubject("testuser")
+                .claim("uid", 1L)
+                .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // When & Then
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expiredToken));
+    }
+
+    @Test
+    @DisplayName("Should reject token without token id")
+    void testVerifyWithoutTokenId() {
+        // Given
+        String tokenWithoutJti = Jwts.builder()
+                .setSubject("testuser")
+                .claim("uid", 1L)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(testSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // When & Then
+        assertThrows(MalformedJwtException.class, () -> jwtService.verify(tokenWithoutJti));
     }
 }
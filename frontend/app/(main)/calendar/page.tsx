@@ -2,13 +2,20 @@
 
 import { useState, useEffect } from 'react';
 import { ChevronLeftIcon, ChevronRightIcon } from '@heroicons/react/24/outline';
-import { todoApi } from '@/lib/api/todoApi';
+import { todoApi, TodoSummary } from '@/lib/api/todoApi';
 import { Todo } from '@/types/todo';
 import TodoModal from '@/components/TodoModal';
 
+// Above this many todos in a month only the number per day is loaded
+const DENSE_MONTH_LIMIT = 200;
+
+const toIsoDate = (date: Date) =>
+  `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, '0')}-${String(date.getDate()).padStart(2, '0')}`;
+
 export default function CalendarPage() {
   const [currentDate, setCurrentDate] = useState(new Date());
-  const [todos, setTodos] = useState<Todo[]>([]);
+  const [todos, setTodos] = useState<TodoSummary[]>([]);
+  const [dayCounts, setDayCounts] = useState<Record<string, number> | null>(null);
   const [loading, setLoading] = useState(true);
   const [isModalOpen, setIsModalOpen] = useState(false);
   const [selectedTodo, setSelectedTodo] = useState<Todo | null>(null);
@@ -16,13 +23,23 @@ export default function CalendarPage() {
 
   useEffect(() => {
     fetchTodos();
-  }, []);
+  }, [currentDate]);
 
+  // Only the visible month; the per-day counts are cheap, rows are fetched when the month is not too dense
   const fetchTodos = async () => {
     try {
       setLoading(true);
-      const data = await todoApi.getAllTodos();
-      setTodos(data);
+      const from = toIsoDate(new Date(currentDate.getFullYear(), currentDate.getMonth(), 1));
+      const to = toIsoDate(new Date(currentDate.getFullYear(), currentDate.getMonth() + 1, 0));
+      const counts = await todoApi.getDayCountsInRange(from, to);
+      const total = counts.reduce((sum, day) => sum + day.count, 0);
+      if (total > DENSE_MONTH_LIMIT) {
+        setDayCounts(Object.fromEntries(counts.map((day) => [day.date, day.count])));
+        setTodos([]);
+      } else {
+        setDayCounts(null);
+        setTodos(total > 0 ? await todoApi.getTodosInRange(from, to) : []);
+      }
     } catch (error) {
       console.error('Failed to fetch todos:', error);
     } finally {
@@ -58,11 +75,19 @@ export default function CalendarPage() {
     });
   };
 
-  const handleDayClick = (day: number, dayTodos: Todo[]) => {
+  const getCountForDay = (day: number) =>
+    dayCounts?.[toIsoDate(new Date(currentDate.getFullYear(), currentDate.getMonth(), day))] ?? 0;
+
+  const handleDayClick = async (day: number, dayTodos: TodoSummary[]) => {
     if (dayTodos.length === 1) {
-      setSelectedTodo(dayTodos[0]);
-      setIsModalOpen(true);
-    } else if (dayTodos.length === 0) {
+      // The calendar only holds summaries, the modal needs the full todo
+      try {
+        setSelectedTodo(await todoApi.getTodoById(dayTodos[0].id));
+        setIsModalOpen(true);
+      } catch (error) {
+        console.error('Failed to fetch todo:', error);
+      }
+    } else if (dayTodos.length === 0 && getCountForDay(day) === 0) {
       const date = new Date(currentDate.getFullYear(), currentDate.getMonth(), day, 12, 0);
       setSelectedDate(date);
       setSelectedTodo(null);
@@ -170,6 +195,7 @@ export default function CalendarPage() {
               {/* Days of the month */}
               {days.map((day) => {
                 const dayTodos = getTodosForDay(day);
+                const dayCount = getCountForDay(day);
                 const hasOverdue = dayTodos.some(todo => !todo.completed && new Date(todo.dueDate!) < new Date());
                 const hasCompleted = dayTodos.some(todo => todo.completed);
                 const hasActive = dayTodos.some(todo => !todo.completed);
@@ -210,6 +236,11 @@ export default function CalendarPage() {
                         )}
                       </div>
                     )}
+                    {dayCount > 0 && (
+                      <div className={`mt-1 text-xs ${isToday(day) ? 'text-white' : 'text-gray-500'}`}>
+                        {dayCount} {dayCount === 1 ? 'Aufgabe' : 'Aufgaben'}
+                      </div>
+                    )}
                   </button>
                 );
               })}
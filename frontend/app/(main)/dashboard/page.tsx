@@ -4,7 +4,7 @@ import { useEffect, useState } from 'react';
 import TodoCard from '@/app/components/TodoCard';
 import TodoModal from '@/components/TodoModal';
 import { Todo } from '@/types/todo';
-import { todoApi, PagedResponse } from '@/lib/api/todoApi';
+import { todoApi, CursorPage } from '@/lib/api/todoApi';
 
 export default function DashboardPage() {
   const [todos, setTodos] = useState<Todo[]>([]);
@@ -13,9 +13,8 @@ export default function DashboardPage() {
   const [isModalOpen, setIsModalOpen] = useState(false);
   const [editingTodo, setEditingTodo] = useState<Todo | null>(null);
   const [searchQuery, setSearchQuery] = useState('');
-  const [currentPage, setCurrentPage] = useState(0);
-  const [totalPages, setTotalPages] = useState(0);
-  const [totalElements, setTotalElements] = useState(0);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const pageSize = 10;
 
   useEffect(() => {
@@ -24,27 +23,31 @@ export default function DashboardPage() {
         fetchTodos();
       } else {
         setTodos([]);
-        setTotalPages(0);
-        setTotalElements(0);
+        setNextCursor(null);
       }
     }, 500);
 
     return () => clearTimeout(delaySearch);
-  }, [searchQuery, currentPage]);
+  }, [searchQuery]);
 
-  const fetchTodos = async () => {
+  // Without a cursor the first page replaces the results, with one the next page is appended
+  const fetchTodos = async (cursor?: string) => {
     try {
-      setLoading(true);
-      const data: PagedResponse<Todo> = await todoApi.getAllTodos(currentPage, pageSize);
-      console.log('Fetched todos:', data);
-      setTodos(data.content);
-      setTotalPages(data.totalPages);
-      setTotalElements(data.totalElements);
+      if (cursor) {
+        setLoadingMore(true);
+      } else {
+        setLoading(true);
+      }
+      setError(null);
+      const data: CursorPage<Todo> = await todoApi.searchTodos(searchQuery.trim(), cursor, pageSize);
+      setTodos(previous => (cursor ? [...previous, ...data.content] : data.content));
+      setNextCursor(data.next);
     } catch (err) {
       setError(err instanceof Error ? err.message : 'An error occurred');
       console.error('Error fetching todos:', err);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
@@ -53,10 +56,7 @@ export default function DashboardPage() {
     if (!todo) return;
 
     try {
-      const updated = await todoApi.updateTodo(id, {
-        ...todo,
-        completed: !todo.completed,
-      });
+      const updated = await todoApi.toggleTodoCompleted(id, !todo.completed);
       setTodos(todos.map(t => t.id === id ? updated : t));
     } catch (err) {
       console.error('Error toggling todo:', err);
@@ -147,7 +147,7 @@ export default function DashboardPage() {
             </div>
             {searchQuery && (
               <p className="mt-2 text-sm text-gray-600">
-                {filteredTodos.length} {filteredTodos.length === 1 ? 'Ergebnis' : 'Ergebnisse'} gefunden
+                {filteredTodos.length}{nextCursor ? '+' : ''} {filteredTodos.length === 1 && !nextCursor ? 'Ergebnis' : 'Ergebnisse'} gefunden
               </p>
             )}
           </div>
@@ -197,75 +197,16 @@ export default function DashboardPage() {
                 ))}
               </div>
 
-              {/* Pagination Controls */}
-              {totalPages > 1 && (
-                <div className="mt-8 flex items-center justify-between border-t border-gray-200 bg-white px-4 py-3 sm:px-6 rounded-lg shadow-sm">
-                  <div className="flex flex-1 justify-between sm:hidden">
-                    <button
-                      onClick={() => setCurrentPage(prev => Math.max(0, prev - 1))}
-                      disabled={currentPage === 0}
-                      className="relative inline-flex items-center rounded-md border border-gray-300 bg-white px-4 py-2 text-sm font-medium text-gray-700 hover:bg-gray-50 disabled:opacity-50 disabled:cursor-not-allowed"
-                    >
-                      Zurück
-                    </button>
-                    <button
-                      onClick={() => setCurrentPage(prev => Math.min(totalPages - 1, prev + 1))}
-                      disabled={currentPage === totalPages - 1}
-                      className="relative ml-3 inline-flex items-center rounded-md border border-gray-300 bg-white px-4 py-2 text-sm font-medium text-gray-700 hover:bg-gray-50 disabled:opacity-50 disabled:cursor-not-allowed"
-                    >
-                      Weiter
-                    </button>
-                  </div>
-                  <div className="hidden sm:flex sm:flex-1 sm:items-center sm:justify-between">
-                    <div>
-                      <p className="text-sm text-gray-700">
-                        Zeige <span className="font-medium">{currentPage * pageSize + 1}</span> bis{' '}
-                        <span className="font-medium">
-                          {Math.min((currentPage + 1) * pageSize, totalElements)}
-                        </span>{' '}
-                        von <span className="font-medium">{totalElements}</span> Ergebnissen
-                      </p>
-                    </div>
-                    <div>
-                      <nav className="isolate inline-flex -space-x-px rounded-md shadow-sm" aria-label="Pagination">
-                        <button
-                          onClick={() => setCurrentPage(prev => Math.max(0, prev - 1))}
-                          disabled={currentPage === 0}
-                          className="relative inline-flex items-center rounded-l-md px-2 py-2 text-gray-400 ring-1 ring-inset ring-gray-300 hover:bg-gray-50 focus:z-20 focus:outline-offset-0 disabled:opacity-50 disabled:cursor-not-allowed"
-                        >
-                          <span className="sr-only">Zurück</span>
-                          <svg className="h-5 w-5" viewBox="0 0 20 20" fill="currentColor" aria-hidden="true">
-                            <path fillRule="evenodd" d="M12.79 5.23a.75.75 0 01-.02 1.06L8.832 10l3.938 3.71a.75.75 0 11-1.04 1.08l-4.5-4.25a.75.75 0 010-1.08l4.5-4.25a.75.75 0 011.06.02z" clipRule="evenodd" />
-                          </svg>
-                        </button>
-                        
-                        {[...Array(totalPages)].map((_, idx) => (
-                          <button
-                            key={idx}
-                            onClick={() => setCurrentPage(idx)}
-                            className={`relative inline-flex items-center px-4 py-2 text-sm font-semibold ${
-                              currentPage === idx
-                                ? 'z-10 bg-blue-600 text-white focus:z-20 focus-visible:outline focus-visible:outline-2 focus-visible:outline-offset-2 focus-visible:outline-blue-600'
-                                : 'text-gray-900 ring-1 ring-inset ring-gray-300 hover:bg-gray-50 focus:z-20 focus:outline-offset-0'
-                            }`}
-                          >
-                            {idx + 1}
-                          </button>
-                        ))}
-                        
-                        <button
-                          onClick={() => setCurrentPage(prev => Math.min(totalPages - 1, prev + 1))}
-                          disabled={currentPage === totalPages - 1}
-                          className="relative inline-flex items-center rounded-r-md px-2 py-2 text-gray-400 ring-1 ring-inset ring-gray-300 hover:bg-gray-50 focus:z-20 focus:outline-offset-0 disabled:opacity-50 disabled:cursor-not-allowed"
-                        >
-                          <span className="sr-only">Weiter</span>
-                          <svg className="h-5 w-5" viewBox="0 0 20 20" fill="currentColor" aria-hidden="true">
-                            <path fillRule="evenodd" d="M7.21 14.77a.75.75 0 01.02-1.06L11.168 10 7.23 6.29a.75.75 0 111.04-1.08l4.5 4.25a.75.75 0 010 1.08l-4.5 4.25a.75.75 0 01-1.06-.02z" clipRule="evenodd" />
-                          </svg>
-                        </button>
-                      </nav>
-                    </div>
-                  </div>
+              {/* Load more: search pages are keyset-paginated, so there are no page numbers */}
+              {nextCursor && (
+                <div className="mt-8 text-center">
+                  <button
+                    onClick={() => fetchTodos(nextCursor)}
+                    disabled={loadingMore}
+                    className="rounded-md border border-gray-300 bg-white px-4 py-2 text-sm font-medium text-gray-700 hover:bg-gray-50 disabled:opacity-50 disabled:cursor-not-allowed"
+                  >
+                    {loadingMore ? 'Lädt...' : 'Weitere Ergebnisse laden'}
+                  </button>
                 </div>
               )}
             </>
@@ -38,9 +38,12 @@ export default function Navbar() {
   const handleLogout = async () => {
     try {
       await authApi.logout();
-      router.push('/login');
     } catch (error) {
       console.error('Logout failed:', error);
+    } finally {
+      // Leave the session locally even if the server call failed
+      setUsername('');
+      router.push('/login');
     }
   };
 
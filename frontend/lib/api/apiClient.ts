@@ -1,10 +1,10 @@
 const API_BASE_URL = 'https://api.test-app.info';
 
-export async function requestRaw(
-  endpoint: string,
-  options?: RequestInit
-): Promise<Response> {
-  const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+// Shared so parallel 401s trigger a single refresh
+let refreshing: Promise<boolean> | null = null;
+
+function send(endpoint: string, options?: RequestInit): Promise<Response> {
+  return fetch(`${API_BASE_URL}${endpoint}`, {
     credentials: 'include',
     headers: {
       'Content-Type': 'application/json',
@@ -12,6 +12,30 @@ export async function requestRaw(
     },
     ...options,
   });
+}
+
+// Exchanges the refresh cookie for a new short-lived access token
+function refreshSession(): Promise<boolean> {
+  if (!refreshing) {
+    refreshing = send('/auth/refresh', { method: 'POST' })
+      .then(response => response.ok)
+      .catch(() => false)
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+}
+
+export async function requestRaw(
+  endpoint: string,
+  options?: RequestInit
+): Promise<Response> {
+  let response = await send(endpoint, options);
+
+  if (response.status === 401 && !endpoint.startsWith('/auth/') && await refreshSession()) {
+    response = await send(endpoint, options);
+  }
 
   if (!response.ok) {
     throw new Error(`API Error: ${response.statusText}`);
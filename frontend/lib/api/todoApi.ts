@@ -11,10 +11,64 @@ export interface PagedResponse<T> {
   first: boolean;
 }
 
+export interface CursorPage<T> {
+  content: T[];
+  size: number;
+  next: string | null;
+  totalElements: number | null;
+}
+
+export interface BulkActionResponse {
+  affected: number;
+}
+
+export interface TitleSuggestion {
+  id: number;
+  title: string;
+}
+
+export interface TodoSummary {
+  id: number;
+  title: string;
+  completed: boolean;
+  dueDate: string;
+}
+
+export interface DayCount {
+  date: string;
+  count: number;
+}
+
+export interface ImportResponse {
+  rows: number;
+  imported: number;
+  failed: number;
+  completed: boolean;
+  errors: { row: number; error: string }[];
+}
+
 export const todoApi = {
   getAllTodos: (page = 0, size = 10, sortBy = 'id', sortDir = 'DESC'): Promise<PagedResponse<Todo>> => 
     request<PagedResponse<Todo>>(`/api/todos?page=${page}&size=${size}&sortBy=${sortBy}&sortDir=${sortDir}`),
 
+  // Ranked full-text search on the backend; pass `next` of the previous page as cursor
+  searchTodos: (q: string, cursor?: string | null, size = 10): Promise<CursorPage<Todo>> =>
+    request<CursorPage<Todo>>(
+      `/api/todos/search?q=${encodeURIComponent(q)}&size=${size}${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ''}`
+    ),
+
+  // Todos due between two days (yyyy-MM-dd, both inclusive), only the fields a calendar cell needs
+  getTodosInRange: (from: string, to: string): Promise<TodoSummary[]> =>
+    request<TodoSummary[]>(`/api/todos/range?from=${from}&to=${to}`),
+
+  // Same window as one count per day that has todos, for dense months
+  getDayCountsInRange: (from: string, to: string): Promise<DayCount[]> =>
+    request<DayCount[]>(`/api/todos/range?from=${from}&to=${to}&counts=true`),
+
+  // Title suggestions while typing, answered from an in-memory index on the backend
+  autocompleteTitles: (prefix: string, limit = 10): Promise<TitleSuggestion[]> =>
+    request<TitleSuggestion[]>(`/api/todos/autocomplete?prefix=${encodeURIComponent(prefix)}&limit=${limit}`),
+
   getTodoById: (id: number): Promise<Todo> => 
     request<Todo>(`/api/todos/${id}`),
 
@@ -35,10 +89,33 @@ export const todoApi = {
       method: 'DELETE',
     }),
 
-  toggleTodoCompleted: (id: number, completed: boolean): Promise<Todo> => 
+  // Merge patch: only the sent fields change, the backend writes just this column
+  patchTodo: (id: number, changes: Partial<Omit<Todo, 'id' | 'createdAt' | 'updatedAt'>>): Promise<Todo> =>
     request<Todo>(`/api/todos/${id}`, {
-      method: 'PUT',
-      body: JSON.stringify({ completed }),
+      method: 'PATCH',
+      headers: { 'Content-Type': 'application/merge-patch+json' },
+      body: JSON.stringify(changes),
+    }),
+
+  toggleTodoCompleted: (id: number, completed: boolean): Promise<Todo> => 
+    todoApi.patchTodo(id, { completed }),
+
+  // Set-based actions: one statement each on the backend, the response carries the affected count
+  completeAll: (): Promise<BulkActionResponse> =>
+    request<BulkActionResponse>('/api/todos/complete-all', { method: 'POST' }),
+
+  deleteCompleted: (): Promise<BulkActionResponse> =>
+    request<BulkActionResponse>('/api/todos/completed', { method: 'DELETE' }),
+
+  rescheduleOverdue: (days: number): Promise<BulkActionResponse> =>
+    request<BulkActionResponse>(`/api/todos/overdue/reschedule?days=${days}`, { method: 'POST' }),
+
+  // The file is sent as the raw body and parsed on the backend while it uploads
+  importTodos: (file: Blob, format: 'ndjson' | 'csv'): Promise<ImportResponse> =>
+    request<ImportResponse>(`/api/todos/import?format=${format}`, {
+      method: 'POST',
+      headers: { 'Content-Type': format === 'csv' ? 'text/csv' : 'application/x-ndjson' },
+      body: file,
     }),
 
   getTodosByCompleted: (completed: boolean): Promise<Todo[]> => 
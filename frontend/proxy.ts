@@ -15,6 +15,8 @@ export const config = {
 
 export async function proxy(req: NextRequest) {
   const session = req.cookies.get("jwt")?.value;
+  // Access-Token ist kurzlebig, der Refresh-Token hält die Sitzung am Leben
+  const refresh = req.cookies.get("refresh_token")?.value;
   const { pathname } = req.nextUrl;
 
   console.log("[Middleware] Path:", pathname);
@@ -27,7 +29,7 @@ export async function proxy(req: NextRequest) {
   }
 
   // Nicht eingeloggt + versucht auf geschützte Seite → Redirect zu Login
-  if (!session && (pathname.startsWith("/dashboard") || pathname.startsWith("/calendar"))) {
+  if (!session && !refresh && (pathname.startsWith("/dashboard") || pathname.startsWith("/calendar"))) {
     console.log("[Middleware] No session, redirecting to login");
     return NextResponse.redirect(new URL("/login", req.url));
   }
@@ -37,7 +39,8 @@ export async function proxy(req: NextRequest) {
     console.log("[Middleware] Validating session...");
     const isValid = await authApi.validateSession(session);
     console.log("[Middleware] Session valid:", isValid);
-    if (!isValid) {
+    // Abgelaufenes Access-Token: der Client erneuert es beim ersten 401 selbst
+    if (!isValid && !refresh) {
       console.log("[Middleware] Invalid session, redirecting to login");
       return NextResponse.redirect(new URL("/login", req.url));
     }
@@ -6,4 +6,5 @@ export interface Todo {
   dueDate?: string;
   createdAt?: string;
   updatedAt?: string;
+  version?: number;
 }